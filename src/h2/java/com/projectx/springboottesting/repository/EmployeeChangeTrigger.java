@@ -0,0 +1,26 @@
+package com.projectx.springboottesting.repository;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * H2 trigger behind {@code employee_change} (see the V2 migration): bumps one slot, picked at random, in the
+ * transaction of every statement that changes {@code employee}. MySQL does the same with SQL triggers.
+ */
+public class EmployeeChangeTrigger implements Trigger {
+
+    private static final int SLOTS = 16;
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "update employee_change set changes = changes + 1 where slot = ?")) {
+            statement.setInt(1, ThreadLocalRandom.current().nextInt(SLOTS));
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- counts the statements that changed employee, in 16 slots so concurrent writers seldom update the same row;
+-- the sum of the slots is the collection ETag, read without touching employee
+create table employee_change (
+    slot    int    not null,
+    changes bigint not null,
+    primary key (slot)
+);
+
+insert into employee_change (slot, changes)
+select x - 1, 0 from system_range(1, 16);
+
+create trigger employee_changed after insert, update, delete on employee for each statement
+    call 'com.projectx.springboottesting.repository.EmployeeChangeTrigger';
@@ -0,0 +1,61 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.SpringBootTestingApplication;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against a private in-memory H2 database so benchmarks run offline.
+ */
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        // command line arguments override application.properties, default properties would not
+        String[] args = Stream.concat(Stream.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--employee.jdbc.stream-fetch-size=1000",
+                "--logging.level.root=WARN"), Stream.of(extraArgs)).toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Inserts employees with ids 1..rows; employee {@code i} is named First{i} Last{i} with email employee{i}@gmail.com.
+     */
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        EmployeeJdbcRepository employeeJdbcRepository = context.getBean(EmployeeJdbcRepository.class);
+        for (int from = 1; from <= rows; from += SEED_CHUNK) {
+            List<Employee> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, rows + 1); i++) {
+                chunk.add(employee(i));
+            }
+            employeeJdbcRepository.insertAll(chunk);
+        }
+    }
+
+    static Employee employee(long i) {
+        return Employee.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("employee" + i + "@gmail.com")
+                .build();
+    }
+}
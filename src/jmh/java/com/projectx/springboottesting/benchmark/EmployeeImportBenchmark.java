@@ -0,0 +1,116 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.dto.EmployeeImportEvent;
+import com.projectx.springboottesting.service.EmployeeImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second through {@link EmployeeImporter}, CSV against NDJSON. The body is generated while it is read,
+ * so the input never sits in memory and {@code -prof gc} shows what the import itself allocates per row.
+ * The in-memory H2 table and the search index live in the benchmark's heap too, so every iteration starts
+ * from a fresh context; otherwise garbage collection of the growing table dominates later iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(EmployeeImportBenchmark.ROWS)
+public class EmployeeImportBenchmark {
+
+    static final int ROWS = 50_000;
+
+    @Param({"CSV", "NDJSON"})
+    public EmployeeImporter.Format format;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeImporter employeeImporter;
+
+    private int invocation;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        context = BenchmarkContext.start("--employee.import.chunk-size=" + chunkSize);
+        employeeImporter = context.getBean(EmployeeImporter.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EmployeeImportEvent importEmployees() throws IOException {
+        // every invocation imports new emails, otherwise all but the first would only find duplicates
+        return employeeImporter.importEmployees(new GeneratedBody(format, ++invocation), format, StandardCharsets.UTF_8,
+                event -> {
+                });
+    }
+
+    /**
+     * {@link #ROWS} employees rendered one row at a time.
+     */
+    private static final class GeneratedBody extends InputStream {
+
+        private final EmployeeImporter.Format format;
+
+        private final int invocation;
+
+        private byte[] current;
+
+        private int position;
+
+        private int row = -1;
+
+        private GeneratedBody(EmployeeImporter.Format format, int invocation) {
+            this.format = format;
+            this.invocation = invocation;
+            this.current = format == EmployeeImporter.Format.CSV
+                    ? "firstName,lastName,email\n".getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            while (position == current.length) {
+                if (++row == ROWS) {
+                    return -1;
+                }
+                String email = "import" + invocation + "." + row + "@gmail.com";
+                String line = format == EmployeeImporter.Format.CSV
+                        ? "First" + row + ",Last" + row + "," + email + "\n"
+                        : "{\"firstName\":\"First" + row + "\",\"lastName\":\"Last" + row + "\",\"email\":\"" + email + "\"}\n";
+                current = line.getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
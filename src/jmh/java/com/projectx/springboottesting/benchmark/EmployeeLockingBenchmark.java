@@ -0,0 +1,111 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Read-modify-write cycles from 64 clients on a set of hot employees: optimistic version checks with retry,
+ * the path PUT /api/employees/{id} takes, against pessimistic row locks (SELECT ... FOR UPDATE) held for the
+ * whole cycle. {@code thinkMicros} is the work between reading and writing. The pessimistic variant keeps the
+ * row locked and a pooled connection checked out through it, so with the default pool of 10 it queues on
+ * connections as well as on rows; the optimistic variant only holds a connection for the short write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class EmployeeLockingBenchmark {
+
+    @Param({"16", "256"})
+    public int hotEmployees;
+
+    @Param({"0", "1000"})
+    public int thinkMicros;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Optimistic attempts that lost the race and were retried, reported next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retries {
+        public long retries;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, hotEmployees);
+        employeeService = context.getBean(EmployeeService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee optimistic(Retries counters) {
+        long id = ThreadLocalRandom.current().nextLong(1, hotEmployees + 1);
+        while (true) {
+            Employee employee = employeeService.getEmployeeById(id).orElseThrow();
+            think();
+            employee.setFirstName("First" + ThreadLocalRandom.current().nextInt());
+            try {
+                return employeeService.updateEmployee(employee);
+            } catch (ConcurrencyFailureException e) {
+                counters.retries++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Employee pessimistic() {
+        long id = ThreadLocalRandom.current().nextLong(1, hotEmployees + 1);
+        return transactionTemplate.execute(status -> {
+            Employee employee = entityManager.find(Employee.class, id, LockModeType.PESSIMISTIC_WRITE);
+            think();
+            employee.setFirstName("First" + ThreadLocalRandom.current().nextInt());
+            return employee;
+        });
+    }
+
+    private void think() {
+        if (thinkMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(thinkMicros));
+        }
+    }
+}
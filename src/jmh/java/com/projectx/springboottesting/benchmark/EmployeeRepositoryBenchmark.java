@@ -0,0 +1,74 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The four {@link EmployeeRepository} lookups: derived query, JPQL with positional and named parameters, native SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeRepositoryBenchmark {
+
+    @Param({"10000", "100000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, tableSize);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomEmployee() {
+        return ThreadLocalRandom.current().nextInt(1, tableSize + 1);
+    }
+
+    @Benchmark
+    public Optional<Employee> findByEmail() {
+        return employeeRepository.findByEmail("employee" + randomEmployee() + "@gmail.com");
+    }
+
+    @Benchmark
+    public Employee findByFirstNameAndLastName() {
+        int i = randomEmployee();
+        return employeeRepository.findByFirstNameAndLastName("First" + i, "Last" + i);
+    }
+
+    @Benchmark
+    public Employee findByFirstNameAndLastNameNNamedParams() {
+        int i = randomEmployee();
+        return employeeRepository.findByFirstNameAndLastNameNNamedParams("First" + i, "Last" + i);
+    }
+
+    @Benchmark
+    public Employee findByNativeSQL() {
+        int i = randomEmployee();
+        return employeeRepository.findByNativeSQL("First" + i, "Last" + i);
+    }
+}
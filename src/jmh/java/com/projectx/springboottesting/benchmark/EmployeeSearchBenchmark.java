@@ -0,0 +1,82 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
+import com.projectx.springboottesting.service.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead queries against {@link EmployeeSearchIndex}. Names are drawn from small pools so tokens repeat the
+ * way real names do; First{i} Last{i} would make every token unique and every prefix trivially selective.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+            "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris"};
+
+    private static final int SEED_CHUNK = 10_000;
+
+    @Param({"100000", "1000000"})
+    public int tableSize;
+
+    @Param({"jo", "john smi", "willaims"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        EmployeeJdbcRepository employeeJdbcRepository = context.getBean(EmployeeJdbcRepository.class);
+        for (int from = 0; from < tableSize; from += SEED_CHUNK) {
+            List<Employee> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, tableSize); i++) {
+                String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+                String lastName = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+                chunk.add(Employee.builder()
+                        .firstName(firstName)
+                        .lastName(lastName)
+                        .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@gmail.com")
+                        .build());
+            }
+            employeeJdbcRepository.insertAll(chunk);
+        }
+        // the index loaded an empty table when the context became ready
+        searchIndex = context.getBean(EmployeeSearchIndex.class);
+        searchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> search() {
+        return searchIndex.search(query, 10);
+    }
+}
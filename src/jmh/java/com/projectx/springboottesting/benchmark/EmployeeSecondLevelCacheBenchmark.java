@@ -0,0 +1,101 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A read-heavy mix straight against {@link EmployeeRepository}, below the service's by-id cache, with the Hibernate
+ * second-level and query cache on and off: 70% findById, 15% findByEmail, 10% findByFirstNameAndLastName, 4%
+ * patchEmployee and 1% deleteEmployeeById of a row saved for it. The writes evict only their own row from the entity
+ * region. The SELECTs each operation costs on average are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeSecondLevelCacheBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+
+    @Param({"true", "false"})
+    public boolean hibernateCache;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeRepository employeeRepository;
+
+    private Statistics statistics;
+
+    private final LongAdder operations = new LongAdder();
+
+    private final AtomicLong extras = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + hibernateCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + hibernateCache);
+        BenchmarkContext.seed(context, TABLE_SIZE);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // patches and deletes run as plain JDBC, outside these statistics; the saves before the deletes do not
+        long selects = statistics.getPrepareStatementCount() - statistics.getEntityInsertCount();
+        System.out.printf("%nhibernateCache=%s: %.3f SELECTs per operation over %,d operations, "
+                        + "entity region hit ratio %.3f, query cache hit ratio %.3f%n",
+                hibernateCache, (double) selects / operations.sum(), operations.sum(),
+                ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        context.close();
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    @Benchmark
+    public Object readHeavyMix() {
+        operations.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(1, TABLE_SIZE + 1);
+        int pick = random.nextInt(100);
+        if (pick < 70) {
+            return employeeRepository.findById((long) i);
+        }
+        if (pick < 85) {
+            return employeeRepository.findByEmail("employee" + i + "@gmail.com");
+        }
+        if (pick < 95) {
+            return employeeRepository.findByFirstNameAndLastName("First" + i, "Last" + i);
+        }
+        // every write to the table invalidates all cached query results, not only this employee's
+        if (pick < 99) {
+            // the same name again: an UPDATE that bumps the version and leaves the finders above matching
+            return employeeRepository.patchEmployee(i, "First" + i, null, null);
+        }
+        Employee extra = employeeRepository.save(BenchmarkContext.employee(TABLE_SIZE + extras.incrementAndGet()));
+        return employeeRepository.deleteEmployeeById(extra.getId());
+    }
+}
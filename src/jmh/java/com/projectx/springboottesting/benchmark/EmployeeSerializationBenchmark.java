@@ -0,0 +1,124 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.projectx.springboottesting.config.EmployeeProtobufHttpMessageConverter;
+import com.projectx.springboottesting.config.ResponseCompressionFilter;
+import com.projectx.springboottesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time of a {@code GET /api/employees} body of {@value #EMPLOYEES} employees per response format, through
+ * the same message converters and compressors the application uses, written to a stream that only counts bytes.
+ * The bytes on the wire for each combination are printed once per trial, next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeSerializationBenchmark {
+
+    static final int EMPLOYEES = 10_000;
+
+    private static final Type EMPLOYEE_LIST = new ParameterizedTypeReference<List<Employee>>() {
+    }.getType();
+
+    public enum Format {
+        JSON(new MappingJackson2HttpMessageConverter(new ObjectMapper()), MediaType.APPLICATION_JSON),
+        CBOR(new MappingJackson2CborHttpMessageConverter(new CBORMapper()), MediaType.APPLICATION_CBOR),
+        SMILE(new MappingJackson2SmileHttpMessageConverter(new SmileMapper()), new MediaType("application", "x-jackson-smile")),
+        PROTOBUF(new EmployeeProtobufHttpMessageConverter(), EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+        private final GenericHttpMessageConverter<Object> converter;
+
+        private final MediaType mediaType;
+
+        @SuppressWarnings("unchecked")
+        Format(GenericHttpMessageConverter<?> converter, MediaType mediaType) {
+            this.converter = (GenericHttpMessageConverter<Object>) converter;
+            this.mediaType = mediaType;
+        }
+    }
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    public Format format;
+
+    // NONE, or one of ResponseCompressionFilter.Encoding
+    @Param({"NONE", "GZIP", "ZSTD"})
+    public String compression;
+
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            Employee employee = BenchmarkContext.employee(i);
+            employee.setId(i);
+            employee.setVersion(i % 5);
+            employees.add(employee);
+        }
+        System.out.printf("%n%s/%s: %,d bytes per %,d employees%n", format, compression, encode(), EMPLOYEES);
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        OutputStream body = compression.equals("NONE") ? counter
+                : ResponseCompressionFilter.Encoding.valueOf(compression).wrap(counter);
+        format.converter.write(employees, EMPLOYEE_LIST, format.mediaType, new HttpOutputMessage() {
+
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        body.close();
+        return counter.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.projectx.springboottesting.benchmark;
+
+import com.projectx.springboottesting.config.SqlStatementStats;
+import com.projectx.springboottesting.dto.SqlStatementReport;
+import com.projectx.springboottesting.exception.ResourceNotFoundException;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmailBloomFilter;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Many threads looking up the same few keys, the case where {@link EmployeeService} lets concurrent lookups share one
+ * SELECT. Both workloads are ones the by-id cache cannot absorb: ids with no row, which are never cached, and saves
+ * of emails that are already taken, which check the table first. {@code keys=1} is one hot key; {@code keys=10000}
+ * spreads the same load so that lookups rarely overlap. The SELECTs sent per operation and per second are printed at
+ * the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class EmployeeSingleFlightBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+
+    @Param({"1", "16", "10000"})
+    public int keys;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private SqlStatementStats sqlStatementStats;
+
+    private final LongAdder operations = new LongAdder();
+
+    private long startNanos;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, TABLE_SIZE);
+        // built when the application became ready, before the seed; without the seeded emails it would skip the check
+        context.getBean(EmailBloomFilter.class).rebuild();
+        employeeService = context.getBean(EmployeeService.class);
+        sqlStatementStats = context.getBean(SqlStatementStats.class);
+        sqlStatementStats.reset();
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long selects = sqlStatementStats.top(Integer.MAX_VALUE, SqlStatementStats.Order.COUNT).stream()
+                .filter(report -> report.sql().regionMatches(true, 0, "select", 0, 6))
+                .mapToLong(SqlStatementReport::count)
+                .sum();
+        System.out.printf(Locale.ROOT, "%nkeys=%d: %.3f SELECTs per operation, %,.0f SELECTs/s over %,d operations%n",
+                keys, (double) selects / operations.sum(), selects / seconds, operations.sum());
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> getMissingEmployeeById() {
+        operations.increment();
+        return employeeService.getEmployeeById(TABLE_SIZE + 1 + ThreadLocalRandom.current().nextInt(keys));
+    }
+
+    @Benchmark
+    public Object saveTakenEmail() {
+        operations.increment();
+        try {
+            return employeeService.saveEmployee(BenchmarkContext.employee(1 + ThreadLocalRandom.current().nextInt(keys)));
+        } catch (ResourceNotFoundException alreadyExists) {
+            return alreadyExists;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.projectx.springboottesting.loadtest;
+
+import com.projectx.springboottesting.SpringBootTestingApplication;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Runs a mixed create/get/update/delete/list workload against the application over HTTP and reports latency
+ * percentiles and throughput per operation. The application is booted in this JVM on a random port against a
+ * private in-memory H2 database, so the run needs nothing else; {@code ./gradlew loadTest} starts it.
+ *
+ * <p>Requests are started on a fixed schedule, {@code rate} per second, however long earlier ones take, and each
+ * response time is measured from when the request was scheduled to start rather than from when it was sent. A
+ * driver that waits for a slow response before sending the next request quietly stops sending exactly while the
+ * server is slow, and leaves those requests' wait out of the histogram (coordinated omission). Service time, from
+ * the actual send, is recorded too; the gap between the two is time spent queued behind {@code concurrency}.
+ *
+ * <p>Histograms are written to {@code results} as {@code .hgrm} percentile distributions in milliseconds, which
+ * HdrHistogram's plotter reads. With {@code max-p99} or {@code max-p999} set, a slower run exits with status 1.
+ */
+public final class EmployeeLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private final LoadTestOptions options;
+
+    private final Map<EmployeeWorkload.Operation, Recorder> recorders = new EnumMap<>(EmployeeWorkload.Operation.class);
+
+    private final Recorder total = new Recorder();
+
+    private EmployeeLoadTest(LoadTestOptions options) {
+        this.options = options;
+        for (EmployeeWorkload.Operation operation : EmployeeWorkload.Operation.values()) {
+            recorders.put(operation, new Recorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int status;
+        try (ConfigurableApplicationContext context = start(options.appArgs())) {
+            seed(context.getBean(EmployeeService.class), options.employees());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            EmployeeLoadTest loadTest = new EmployeeLoadTest(options);
+            Duration elapsed;
+            try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                elapsed = loadTest.run(new EmployeeWorkload(httpClient, "http://localhost:" + port + "/api/employees",
+                        options.employees(), options.mix()));
+            }
+            status = loadTest.report(elapsed);
+        }
+        System.exit(status);
+    }
+
+    private static ConfigurableApplicationContext start(List<String> appArgs) {
+        // command line arguments override application.properties, default properties would not
+        String[] args = Stream.concat(Stream.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--employee.jdbc.stream-fetch-size=1000",
+                "--server.port=0",
+                "--logging.level.root=WARN"), appArgs.stream()).toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Inserts employees with ids 1..rows through the service, so the email filter and search index see them too.
+     */
+    private static void seed(EmployeeService employeeService, int rows) {
+        for (int from = 1; from <= rows; from += SEED_CHUNK) {
+            List<Employee> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, rows + 1); i++) {
+                chunk.add(Employee.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("employee" + i + "@gmail.com")
+                        .build());
+            }
+            employeeService.saveEmployees(chunk);
+        }
+    }
+
+    /**
+     * Starts every scheduled request, then waits for the last to finish.
+     *
+     * @return time from the end of the warmup until the last recorded response
+     */
+    private Duration run(EmployeeWorkload workload) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long warmupRequests = options.warmup().toNanos() / intervalNanos;
+        long requests = warmupRequests + options.duration().toNanos() / intervalNanos;
+        Semaphore inFlight = new Semaphore(options.concurrency());
+        long start = System.nanoTime();
+        long measureStart = start + warmupRequests * intervalNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // a full window delays the send, not the intended start the response time is measured from
+                inFlight.acquire();
+                boolean recorded = i >= warmupRequests;
+                EmployeeWorkload.Operation operation = workload.next();
+                executor.execute(() -> {
+                    try {
+                        call(workload, operation, intendedStart, recorded);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - measureStart);
+    }
+
+    private void call(EmployeeWorkload workload, EmployeeWorkload.Operation operation, long intendedStart, boolean recorded) {
+        long sent = System.nanoTime();
+        EmployeeWorkload.Result result;
+        try {
+            result = workload.execute(operation);
+        } catch (Exception e) {
+            result = null;
+        }
+        long done = System.nanoTime();
+        if (!recorded) {
+            return;
+        }
+        long responseMicros = TimeUnit.NANOSECONDS.toMicros(done - intendedStart);
+        long serviceMicros = TimeUnit.NANOSECONDS.toMicros(done - sent);
+        // a failed send is charged to the operation it was meant to be
+        Recorder recorder = recorders.get(result == null ? operation : result.operation());
+        for (Recorder target : List.of(recorder, total)) {
+            target.record(responseMicros, serviceMicros);
+            if (result == null || result.error()) {
+                target.errors.increment();
+            } else if (result.conflict()) {
+                target.conflicts.increment();
+            }
+        }
+    }
+
+    /**
+     * Prints the summary and writes the histograms.
+     *
+     * @return the exit status: 1 if a latency threshold was exceeded
+     */
+    private int report(Duration elapsed) throws IOException {
+        double seconds = elapsed.toNanos() / 1e9;
+        StringBuilder summary = new StringBuilder()
+                .append(String.format(Locale.ROOT, "%nTarget %,d req/s, concurrency %d, %s recorded after %s warmup, %,d employees%n",
+                        options.rate(), options.concurrency(), options.duration(), options.warmup(), options.employees()))
+                .append(String.format(Locale.ROOT, "Response time from the scheduled start, in ms:%n"))
+                .append(String.format(Locale.ROOT, "%-8s %9s %9s %9s %9s %9s %9s %9s %8s %9s%n",
+                        "", "count", "req/s", "p50", "p90", "p99", "p99.9", "max", "errors", "conflicts"));
+        for (Map.Entry<EmployeeWorkload.Operation, Recorder> entry : recorders.entrySet()) {
+            if (entry.getValue().responseTime.getTotalCount() > 0) {
+                summary.append(entry.getValue().row(entry.getKey().name().toLowerCase(Locale.ROOT), seconds));
+            }
+        }
+        summary.append(total.row("all", seconds))
+                .append(String.format(Locale.ROOT, "Service time from the send, all operations: p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f ms%n",
+                        millis(total.serviceTime, 50), millis(total.serviceTime, 99), millis(total.serviceTime, 99.9),
+                        total.serviceTime.getMaxValue() / 1000.0));
+
+        int status = 0;
+        if (options.maxP99() != null && millis(total.responseTime, 99) > options.maxP99().toNanos() / 1e6) {
+            summary.append(String.format("FAILED: p99 above %s%n", options.maxP99()));
+            status = 1;
+        }
+        if (options.maxP999() != null && millis(total.responseTime, 99.9) > options.maxP999().toNanos() / 1e6) {
+            summary.append(String.format("FAILED: p99.9 above %s%n", options.maxP999()));
+            status = 1;
+        }
+        System.out.print(summary);
+
+        if (options.results() != null) {
+            Files.createDirectories(options.results());
+            Files.writeString(options.results().resolve("summary.txt"), summary);
+            for (Map.Entry<EmployeeWorkload.Operation, Recorder> entry : recorders.entrySet()) {
+                write(options.results().resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"),
+                        entry.getValue().responseTime);
+            }
+            write(options.results().resolve("all.hgrm"), total.responseTime);
+            write(options.results().resolve("all-service-time.hgrm"), total.serviceTime);
+            System.out.println("Histograms written to " + options.results().toAbsolutePath());
+        }
+        return status;
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Latencies of one operation in microseconds, to three significant digits.
+     */
+    private static final class Recorder {
+
+        private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder conflicts = new LongAdder();
+
+        void record(long responseMicros, long serviceMicros) {
+            responseTime.recordValue(Math.min(responseMicros, HIGHEST_TRACKABLE_MICROS));
+            serviceTime.recordValue(Math.min(serviceMicros, HIGHEST_TRACKABLE_MICROS));
+        }
+
+        String row(String name, double seconds) {
+            return String.format(Locale.ROOT, "%-8s %,9d %,9.0f %9.2f %9.2f %9.2f %9.2f %9.2f %,8d %,9d%n",
+                    name, responseTime.getTotalCount(), responseTime.getTotalCount() / seconds,
+                    millis(responseTime, 50), millis(responseTime, 90), millis(responseTime, 99),
+                    millis(responseTime, 99.9), responseTime.getMaxValue() / 1000.0, errors.sum(), conflicts.sum());
+        }
+    }
+}
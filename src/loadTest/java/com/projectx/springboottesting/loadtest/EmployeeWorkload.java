@@ -0,0 +1,140 @@
+package com.projectx.springboottesting.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectx.springboottesting.dto.EmployeePage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The requests of a load test against {@code /api/employees}. Gets, updates and lists address the seeded
+ * employees 1..{@code employees}; updates keep each email, so they never collide on the unique index. Deletes
+ * remove employees the run itself created, so the seeded table stays intact; while there are none yet a delete
+ * is sent as a create.
+ */
+final class EmployeeWorkload {
+
+    enum Operation {
+        CREATE,
+        GET,
+        UPDATE,
+        DELETE,
+        LIST
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int PAGE_SIZE = 50;
+
+    private final HttpClient httpClient;
+
+    private final String baseUrl;
+
+    private final int employees;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+
+    EmployeeWorkload(HttpClient httpClient, String baseUrl, int employees, Map<Operation, Integer> mix) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.employees = employees;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Sends {@code operation}, or a create in place of a delete with nothing to delete.
+     */
+    Result execute(Operation operation) throws IOException, InterruptedException {
+        long id = ThreadLocalRandom.current().nextLong(1, employees + 1);
+        return switch (operation) {
+            case CREATE -> create();
+            case GET -> send(Operation.GET, HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET());
+            case UPDATE -> send(Operation.UPDATE, HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(json("Updated" + ThreadLocalRandom.current().nextInt(1000), "Last" + id, "employee" + id + "@gmail.com")));
+            case DELETE -> {
+                Long createdId = created.poll();
+                yield createdId == null ? create()
+                        : send(Operation.DELETE, HttpRequest.newBuilder(URI.create(baseUrl + "/" + createdId)).DELETE());
+            }
+            case LIST -> send(Operation.LIST, HttpRequest.newBuilder(
+                    URI.create(baseUrl + "?limit=" + PAGE_SIZE + "&after=" + EmployeePage.encodeCursor(id - 1))).GET());
+        };
+    }
+
+    private Result create() throws IOException, InterruptedException {
+        long n = createdCount.incrementAndGet();
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(json("Load" + n, "Test" + n, "load-" + ProcessHandle.current().pid() + "-" + n + "@example.com"))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 201) {
+            JsonNode body = objectMapper.readTree(response.body());
+            created.add(body.get("id").asLong());
+        }
+        return new Result(Operation.CREATE, response.statusCode());
+    }
+
+    private Result send(Operation operation, HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.discarding());
+        return new Result(operation, response.statusCode());
+    }
+
+    private HttpRequest.BodyPublisher json(String firstName, String lastName, String email) {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.createObjectNode()
+                .put("firstName", firstName)
+                .put("lastName", lastName)
+                .put("email", email)
+                .toString());
+    }
+
+    /**
+     * @param operation the operation actually sent
+     */
+    record Result(Operation operation, int status) {
+
+        // a lost optimistic update is expected under concurrency, not a failure
+        boolean conflict() {
+            return status == 409 || status == 412;
+        }
+
+        boolean error() {
+            return status >= 400 && !conflict();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.projectx.springboottesting.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, parsed from {@code name=value} arguments; arguments starting with {@code --}
+ * are passed on to the application, e.g. {@code --spring.profiles.active=virtual}.
+ *
+ * @param rate        requests per second, started on a fixed schedule whatever the response times
+ * @param concurrency most requests in flight at once; beyond it, scheduled requests queue in the driver
+ * @param warmup      run at the full rate before recording starts
+ * @param duration    recorded part of the run
+ * @param employees   employees in the table before the run; gets, updates and lists pick from these
+ * @param mix         relative weight of each operation
+ * @param maxP99      optional: fail the run if the p99 response time over all operations is above it
+ * @param maxP999     optional: fail the run if the p999 response time over all operations is above it
+ * @param results     where the histograms of the run are written, if set
+ * @param appArgs     arguments for the application
+ */
+record LoadTestOptions(int rate, int concurrency, Duration warmup, Duration duration, int employees,
+                       Map<EmployeeWorkload.Operation, Integer> mix, Duration maxP99, Duration maxP999,
+                       Path results, List<String> appArgs) {
+
+    private static final String DEFAULT_MIX = "get=60,list=10,create=15,update=10,delete=5";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions parsed = new LoadTestOptions(
+                Integer.parseInt(options.getOrDefault("rate", "1000")),
+                Integer.parseInt(options.getOrDefault("concurrency", "256")),
+                DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(options.getOrDefault("duration", "60s")),
+                Integer.parseInt(options.getOrDefault("employees", "10000")),
+                mix(options.getOrDefault("mix", DEFAULT_MIX)),
+                options.containsKey("max-p99") ? DurationStyle.detectAndParse(options.get("max-p99")) : null,
+                options.containsKey("max-p999") ? DurationStyle.detectAndParse(options.get("max-p999")) : null,
+                options.containsKey("results") ? Path.of(options.get("results")) : null,
+                appArgs);
+        if (parsed.rate < 1 || parsed.concurrency < 1 || parsed.employees < 1) {
+            throw new IllegalArgumentException("rate, concurrency and employees must be positive");
+        }
+        return parsed;
+    }
+
+    /**
+     * @param mix comma separated {@code operation=weight} pairs, e.g. {@code get=80,update=20}
+     */
+    private static Map<EmployeeWorkload.Operation, Integer> mix(String mix) {
+        Map<EmployeeWorkload.Operation, Integer> weights = new EnumMap<>(EmployeeWorkload.Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in the mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(EmployeeWorkload.Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+}
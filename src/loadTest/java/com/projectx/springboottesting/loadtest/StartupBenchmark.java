@@ -0,0 +1,216 @@
+package com.projectx.springboottesting.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Starts the application from {@code build/cds/application.jar} in a fresh JVM, again and again, and measures the
+ * time from launching the process to the first successful {@code GET /api/employees?limit=1}, for each startup mode:
+ * <ul>
+ *     <li>{@code ddl-auto}: Flyway off and Hibernate's {@code ddl-auto=update}, as before the migrations</li>
+ *     <li>{@code flyway}: the schema from the versioned migrations, bean definitions built by reflection</li>
+ *     <li>{@code aot}: as {@code flyway}, with the bean definitions generated at build time</li>
+ *     <li>{@code aot-cds}: as {@code aot}, with an AppCDS archive written by a training run first</li>
+ * </ul>
+ * Every run gets a private in-memory H2 database. {@code ./gradlew startupBenchmark} builds the jar and starts this;
+ * {@code runs=<n>} sets the runs per mode, {@code modes=aot,aot-cds} selects modes, and arguments starting with
+ * {@code --} are passed to the application.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    private enum Mode {
+        // Hibernate does not know employee_change; its migration runs as an init script once the tables exist
+        DDL_AUTO(List.of(), List.of("--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.defer-datasource-initialization=true", "--spring.sql.init.mode=always",
+                "--spring.sql.init.schema-locations=classpath:db/migration/h2/V2__create_employee_change.sql")),
+        FLYWAY(List.of(), List.of()),
+        AOT(List.of("-Dspring.aot.enabled=true"), List.of()),
+        AOT_CDS(List.of("-Dspring.aot.enabled=true"), List.of());
+
+        private final List<String> jvmArgs;
+
+        private final List<String> appArgs;
+
+        Mode(List<String> jvmArgs, List<String> appArgs) {
+            this.jvmArgs = jvmArgs;
+            this.appArgs = appArgs;
+        }
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final String classpath;
+
+    private final List<String> appArgs;
+
+    private final Path workDir;
+
+    private StartupBenchmark(String classpath, List<String> appArgs, Path workDir) {
+        this.classpath = classpath;
+        this.appArgs = appArgs;
+        this.workDir = workDir;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<Mode> modes = Arrays.stream(options.getOrDefault("modes", "ddl-auto,flyway,aot,aot-cds").split(","))
+                .map(mode -> Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT).replace('-', '_')))
+                .toList();
+        if (runs < 1 || !options.containsKey("application") || !options.containsKey("h2")) {
+            throw new IllegalArgumentException("runs must be positive; application and h2 are the jars to start");
+        }
+        // the H2 driver and the H2-only migrations are not in the application; the same classpath is used for the CDS
+        // training run
+        String classpath = options.get("application") + File.pathSeparator + options.get("h2");
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        StartupBenchmark benchmark = new StartupBenchmark(classpath, appArgs, workDir);
+
+        Map<Mode, long[]> timings = new HashMap<>();
+        for (Mode mode : modes) {
+            List<String> jvmArgs = new ArrayList<>(mode.jvmArgs);
+            if (mode == Mode.AOT_CDS) {
+                jvmArgs.add("-XX:SharedArchiveFile=" + benchmark.trainCdsArchive(mode));
+            }
+            // one unrecorded start, so every recorded one finds the jars in the page cache
+            benchmark.timeToFirstRequest(jvmArgs, mode);
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = benchmark.timeToFirstRequest(jvmArgs, mode);
+            }
+            Arrays.sort(millis);
+            timings.put(mode, millis);
+        }
+        report(System.out, modes, timings);
+        if (options.containsKey("results")) {
+            Path resultsDir = Path.of(options.get("results"));
+            Files.createDirectories(resultsDir);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(resultsDir.resolve("summary.txt")))) {
+                report(out, modes, timings);
+            }
+            System.out.println("Results written to " + resultsDir);
+        }
+    }
+
+    /**
+     * Starts the application once with {@code -XX:ArchiveClassesAtExit}, stopping as soon as the context is refreshed.
+     */
+    private Path trainCdsArchive(Mode mode) throws IOException, InterruptedException {
+        Path archive = workDir.resolve("application.jsa");
+        List<String> jvmArgs = new ArrayList<>(mode.jvmArgs);
+        jvmArgs.add("-XX:ArchiveClassesAtExit=" + archive);
+        jvmArgs.add("-Dspring.context.exit=onRefresh");
+        Process process = start(jvmArgs, mode, freePort(), workDir.resolve("cds-training.log"));
+        if (!process.waitFor(STARTUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS) || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("CDS training run failed, see " + workDir.resolve("cds-training.log"));
+        }
+        return archive;
+    }
+
+    private long timeToFirstRequest(List<String> jvmArgs, Mode mode) throws IOException, InterruptedException {
+        int port = freePort();
+        Path log = workDir.resolve(mode.label() + ".log");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?limit=1"))
+                .build();
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            long start = System.nanoTime();
+            Process process = start(jvmArgs, mode, port, log);
+            try {
+                while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException(mode.label() + " exited during startup, see " + log);
+                    }
+                    try {
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        }
+                    } catch (ConnectException notListeningYet) {
+                        // the port opens late in startup
+                    }
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                }
+                throw new IllegalStateException(mode.label() + " did not answer within " + STARTUP_TIMEOUT + ", see " + log);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    private Process start(List<String> jvmArgs, Mode mode, int port, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, "com.projectx.springboottesting.SpringBootTestingApplication"));
+        Stream.of("--server.port=" + port,
+                        "--spring.datasource.url=jdbc:h2:mem:employees;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--employee.jdbc.stream-fetch-size=1000",
+                        "--logging.level.root=WARN")
+                .forEach(command::add);
+        command.addAll(mode.appArgs);
+        command.addAll(appArgs);
+        return new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void report(PrintStream out, List<Mode> modes, Map<Mode, long[]> timings) {
+        out.println();
+        out.println("Time to first request, ms");
+        out.printf("%-10s %8s %8s %8s%n", "mode", "min", "median", "max");
+        for (Mode mode : modes) {
+            long[] millis = timings.get(mode);
+            out.printf("%-10s %8d %8d %8d%n", mode.label(), millis[0], millis[millis.length / 2],
+                    millis[millis.length - 1]);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.projectx.springboottesting.config;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A limit on concurrent requests that follows their latency, after the gradient limit of Netflix's
+ * concurrency-limits. The fastest round trip seen recently stands for the no-load latency; after every window of
+ * samples the limit is scaled by {@value #RTT_TOLERANCE} x no-load latency / fastest latency of the window, between
+ * one half and one, plus the square root of the limit as room for queueing. Waiting for a database connection delays
+ * every request, the fastest included, while a mix of cheap and expensive requests leaves the fastest ones fast, so
+ * the window's minimum rather than its average tells queueing apart from the mix. The tolerance lets that minimum
+ * double before the limit reacts, which absorbs jitter. While latency holds, the limit grows; once requests start
+ * queueing it shrinks, by up to half per window, and the excess is turned away at once instead of waiting. The
+ * no-load latency is measured afresh every {@value #PROBE_INTERVAL_WINDOWS} windows, so a lasting change in the
+ * database's speed is eventually accepted as the new normal.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final int PROBE_INTERVAL_WINDOWS = 500;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    // as in concurrency-limits: how far latency may rise over the no-load latency before the limit comes down
+    static final double RTT_TOLERANCE = 2.0;
+
+    // share of a raised limit applied per window; reductions apply in full
+    private static final double GROWTH_SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final int windowSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+
+    private long noLoadRttNanos = Long.MAX_VALUE;
+
+    private int windows;
+
+    private int windowSamples;
+
+    private long windowMinRttNanos = Long.MAX_VALUE;
+
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int windowSize) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || windowSize < 1) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max and a positive window size");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return a permit to release when the request completes, or empty if the limit is reached
+     */
+    public Optional<Permit> tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return Optional.of(new Permit(System.nanoTime(), current + 1));
+    }
+
+    public final class Permit {
+
+        private final long startNanos;
+
+        private final int inFlightAtStart;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Frees the slot; releasing again does nothing.
+         *
+         * @param measured whether the request's latency should adjust the limit; false for requests whose duration
+         *                 says nothing about load, such as streams of every row
+         */
+        public void release(boolean measured) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            if (measured) {
+                sample(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtStart) {
+        windowSamples++;
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (windowSamples < windowSize) {
+            return;
+        }
+        if (++windows % PROBE_INTERVAL_WINDOWS == 0) {
+            noLoadRttNanos = windowMinRttNanos;
+        } else {
+            noLoadRttNanos = Math.min(noLoadRttNanos, windowMinRttNanos);
+        }
+        double gradient = Math.max(MIN_GRADIENT,
+                Math.min(1.0, RTT_TOLERANCE * noLoadRttNanos / Math.max(1, windowMinRttNanos)));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (newLimit > estimatedLimit) {
+            // a window that never came near the limit says nothing about whether a higher one would hold
+            newLimit = windowMaxInFlight < estimatedLimit / 2 ? estimatedLimit
+                    : estimatedLimit + (newLimit - estimatedLimit) * GROWTH_SMOOTHING;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+
+        windowSamples = 0;
+        windowMinRttNanos = Long.MAX_VALUE;
+        windowMaxInFlight = 0;
+    }
+}
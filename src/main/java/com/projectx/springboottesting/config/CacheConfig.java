@@ -0,0 +1,34 @@
+package com.projectx.springboottesting.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projectx.springboottesting.model.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Read-through cache for {@code getEmployeeById}. Caffeine evicts with W-TinyLFU once the size bound is hit;
+     * hit/miss/eviction counts are published under the {@code cache.*} metrics with {@code cache=employees}.
+     */
+    @Bean
+    public Cache<Long, Employee> employeeCache(@Value("${employee.cache.maximum-size:10000}") long maximumSize,
+                                               @Value("${employee.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        Cache<Long, Employee> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "employees"));
+        return cache;
+    }
+}
@@ -0,0 +1,38 @@
+package com.projectx.springboottesting.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts {@link ConcurrencyLimitFilter} in front of the employee API on the servlet stack.
+ * {@code employee.concurrency-limit.enabled=false} leaves requests unlimited.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "employee.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limit(properties.reads()), limit(properties.writes()),
+                        properties.retryAfter(), meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // after Spring Boot's observation filter, so shed requests still show up in http.server.requests,
+        // and ahead of the application's own filters, so they cost nothing more
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimit limit(ConcurrencyLimitProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimit(limit.initial(), limit.min(), limit.max(), limit.windowSize());
+    }
+}
@@ -0,0 +1,114 @@
+package com.projectx.springboottesting.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Admits {@code /api/*} requests up to an {@link AdaptiveConcurrencyLimit}, one for reads (GET and HEAD) and one for
+ * writes, so a slow database cannot tie up every request thread waiting for a connection. Requests over the limit
+ * get 503 with {@code Retry-After} straight away. Publishes {@code employee.concurrency.limit},
+ * {@code employee.concurrency.in.flight} and {@code employee.concurrency.rejected}, tagged {@code kind=read|write}.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimit reads;
+
+    private final AdaptiveConcurrencyLimit writes;
+
+    private final String retryAfterSeconds;
+
+    private final Counter readRejections;
+
+    private final Counter writeRejections;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit reads, AdaptiveConcurrencyLimit writes, Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.reads = reads;
+        this.writes = writes;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.readRejections = register(meterRegistry, "read", reads);
+        this.writeRejections = register(meterRegistry, "write", writes);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String kind, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("employee.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .tag("kind", kind)
+                .description("Concurrent requests admitted at most")
+                .register(meterRegistry);
+        Gauge.builder("employee.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .tag("kind", kind)
+                .register(meterRegistry);
+        return Counter.builder("employee.concurrency.rejected")
+                .tag("kind", kind)
+                .description("Requests turned away with 503 because the limit was reached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        Optional<AdaptiveConcurrencyLimit.Permit> acquired = (read ? reads : writes).tryAcquire();
+        if (acquired.isEmpty()) {
+            (read ? readRejections : writeRejections).increment();
+            // no error dispatch: a shed request should cost as little as possible
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        AdaptiveConcurrencyLimit.Permit permit = acquired.get();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // an async request holds its slot until it finishes, unmeasured
+                request.getAsyncContext().addListener(new ReleasingListener(permit));
+            } else {
+                permit.release(!isBulk(request.getContentType()) && !isBulk(response.getContentType()));
+            }
+        }
+    }
+
+    // a CSV or NDJSON export or import takes as long as the table or the upload is big, whatever the load
+    private static boolean isBulk(String contentType) {
+        return contentType != null && (contentType.startsWith("text/csv") || contentType.startsWith("application/x-ndjson"));
+    }
+
+    private record ReleasingListener(AdaptiveConcurrencyLimit.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // a nested startAsync replaces the listeners; keep this one registered
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.projectx.springboottesting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code employee.concurrency-limit.*}: the adaptive limits on concurrent {@code /api/*} requests.
+ *
+ * @param retryAfter sent with the 503 responses to requests over the limit, rounded to whole seconds
+ * @param reads      limit for GET and HEAD requests
+ * @param writes     limit for every other method
+ */
+@ConfigurationProperties("employee.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("1s") Duration retryAfter,
+                                         @DefaultValue Limit reads,
+                                         @DefaultValue Limit writes) {
+
+    /**
+     * @param initial    limit until the first window of latencies is in
+     * @param min        floor the limit never drops below
+     * @param max        ceiling the limit never grows above
+     * @param windowSize completed requests between adjustments
+     */
+    public record Limit(@DefaultValue("20") int initial,
+                        @DefaultValue("4") int min,
+                        @DefaultValue("200") int max,
+                        @DefaultValue("20") int windowSize) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.projectx.springboottesting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code employee.datasource.routing.*}: read replicas behind the primary configured by {@code spring.datasource.*}.
+ *
+ * @param readYourWritesWindow how long a client's reads stay on the primary after it wrote; zero disables it
+ */
+@ConfigurationProperties("employee.datasource.routing")
+public record DataSourceRoutingProperties(boolean enabled,
+                                          @DefaultValue("round-robin") ReplicaRoutingDataSource.Selection selection,
+                                          @DefaultValue("0s") Duration readYourWritesWindow,
+                                          @DefaultValue List<Replica> replicas) {
+
+    public record Replica(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.projectx.springboottesting.config;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes employees, lists of employees and pages as {@code application/x-protobuf}, following
+ * {@code proto/employee.proto}. The messages are flat, so the wire format is encoded directly with
+ * {@link CodedOutputStream} instead of copying every employee into generated message classes first.
+ * Response-only: request bodies stay JSON.
+ */
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public EmployeeProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class.isAssignableFrom(clazz) || EmployeePage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type != null ? type : clazz);
+        if (Collection.class.isAssignableFrom(resolved.toClass())) {
+            return resolved.asCollection().resolveGeneric(0) == Employee.class;
+        }
+        return supports(resolved.toClass());
+    }
+
+    // by class alone any collection may hold employees; canWrite(Type, ...) checks the element type
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : super.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), 8 * 1024);
+        if (body instanceof Employee employee) {
+            writeFields(out, employee);
+        } else if (body instanceof EmployeePage page) {
+            for (Employee employee : page.items()) {
+                writeEmployee(out, 1, employee);
+            }
+            if (page.next() != null) {
+                out.writeString(2, page.next());
+            }
+        } else {
+            for (Object employee : (Collection<?>) body) {
+                writeEmployee(out, 1, (Employee) employee);
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    // an embedded message is its tag, its length, then its fields
+    private static void writeEmployee(CodedOutputStream out, int fieldNumber, Employee employee) throws IOException {
+        out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(size(employee));
+        writeFields(out, employee);
+    }
+
+    // proto3 leaves out zeros and empty fields; null strings are left out the same way
+    private static void writeFields(CodedOutputStream out, Employee employee) throws IOException {
+        if (employee.getId() != 0) {
+            out.writeInt64(1, employee.getId());
+        }
+        if (employee.getFirstName() != null) {
+            out.writeString(2, employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            out.writeString(3, employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            out.writeString(4, employee.getEmail());
+        }
+        if (employee.getVersion() != 0) {
+            out.writeInt64(5, employee.getVersion());
+        }
+    }
+
+    private static int size(Employee employee) {
+        int size = 0;
+        if (employee.getId() != 0) {
+            size += CodedOutputStream.computeInt64Size(1, employee.getId());
+        }
+        if (employee.getFirstName() != null) {
+            size += CodedOutputStream.computeStringSize(2, employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            size += CodedOutputStream.computeStringSize(3, employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            size += CodedOutputStream.computeStringSize(4, employee.getEmail());
+        }
+        if (employee.getVersion() != 0) {
+            size += CodedOutputStream.computeInt64Size(5, employee.getVersion());
+        }
+        return size;
+    }
+}
@@ -0,0 +1,518 @@
+package com.projectx.springboottesting.config;
+
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.exception.CrossShardUpdateException;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Routes every {@code EmployeeRepository} and {@code EmployeeJdbcRepository} call to the shards that hold its rows:
+ * <ul>
+ *     <li>by id ({@code findById}, the patches, deletes by id) or email ({@code findByEmail}): the one shard</li>
+ *     <li>with a collection of ids, emails or employees: each shard gets its part, in parallel, and the employees
+ *     come back in the order of the ids or employees they were asked for</li>
+ *     <li>{@code flush}: the shard the caller's transaction is on</li>
+ *     <li>the rest ({@code findAll}, the name lookups, keyset pages, {@code count}, the streams): every shard
+ *     in parallel, with the results merged; lists and streams of employees come back in id order</li>
+ * </ul>
+ * A single-shard call runs on the calling thread, inside the caller's transaction if there is one; a transaction
+ * that then needs a second shard fails rather than silently reading the first. Fan-out calls run each shard in its
+ * own transaction on a virtual thread, so writes across shards are not atomic. Every repository method is routed by
+ * its signature in {@link #ROUTES}; one missing from there, such as a method added by a Spring Data upgrade, fails
+ * the startup. Methods that cannot be answered across shards, such as {@code findAll(Pageable)}, are listed as
+ * unsupported and rejected when called rather than answered from one shard.
+ */
+@Aspect
+public class EmployeeShardingAspect implements DisposableBean {
+
+    private enum Routing {
+        ID, ENTITY, EMAIL, IDS, ENTITIES, EMAILS, ALL, TRANSACTION, UNSUPPORTED
+    }
+
+    // keyed by name and erased parameter types, see signature()
+    private static final Map<String, Routing> ROUTES = Map.ofEntries(
+            Map.entry("findById(Object)", Routing.ID),
+            Map.entry("findFreshById(long)", Routing.ID),
+            Map.entry("existsById(Object)", Routing.ID),
+            Map.entry("deleteById(Object)", Routing.ID),
+            Map.entry("getReferenceById(Object)", Routing.ID),
+            Map.entry("getById(Object)", Routing.ID),
+            Map.entry("getOne(Object)", Routing.ID),
+            Map.entry("findVersionById(long)", Routing.ID),
+            Map.entry("patchEmployee(long,String,String,String)", Routing.ID),
+            Map.entry("patchEmployeeIfVersion(long,long,String,String,String)", Routing.ID),
+            Map.entry("deleteEmployeeById(long)", Routing.ID),
+            Map.entry("save(Object)", Routing.ENTITY),
+            Map.entry("saveAndFlush(Object)", Routing.ENTITY),
+            Map.entry("delete(Object)", Routing.ENTITY),
+            Map.entry("findByEmail(String)", Routing.EMAIL),
+            Map.entry("findAllById(Iterable)", Routing.IDS),
+            Map.entry("deleteAllById(Iterable)", Routing.IDS),
+            Map.entry("deleteAllByIdInBatch(Iterable)", Routing.IDS),
+            Map.entry("deleteEmployeesByIds(Collection)", Routing.IDS),
+            Map.entry("saveAll(Iterable)", Routing.ENTITIES),
+            Map.entry("saveAllAndFlush(Iterable)", Routing.ENTITIES),
+            Map.entry("deleteAll(Iterable)", Routing.ENTITIES),
+            Map.entry("deleteAllInBatch(Iterable)", Routing.ENTITIES),
+            Map.entry("deleteInBatch(Iterable)", Routing.ENTITIES),
+            Map.entry("insertAll(List)", Routing.ENTITIES),
+            Map.entry("findExistingEmails(Collection)", Routing.EMAILS),
+            Map.entry("findAll()", Routing.ALL),
+            Map.entry("count()", Routing.ALL),
+            Map.entry("deleteAll()", Routing.ALL),
+            Map.entry("deleteAllInBatch()", Routing.ALL),
+            Map.entry("findByFirstNameAndLastName(String,String)", Routing.ALL),
+            Map.entry("findByFirstNameAndLastNameNNamedParams(String,String)", Routing.ALL),
+            Map.entry("findByNativeSQL(String,String)", Routing.ALL),
+            Map.entry("findByIdGreaterThanOrderByIdAsc(long,Limit)", Routing.ALL),
+            Map.entry("collectionVersion()", Routing.ALL),
+            Map.entry("streamAll()", Routing.ALL),
+            Map.entry("streamAllEmails()", Routing.ALL),
+            Map.entry("flush()", Routing.TRANSACTION),
+            // sorted and paged results would need each shard's pages merged; examples may match on any shard
+            Map.entry("findAll(Sort)", Routing.UNSUPPORTED),
+            Map.entry("findAll(Pageable)", Routing.UNSUPPORTED),
+            Map.entry("findOne(Example)", Routing.UNSUPPORTED),
+            Map.entry("findAll(Example)", Routing.UNSUPPORTED),
+            Map.entry("findAll(Example,Sort)", Routing.UNSUPPORTED),
+            Map.entry("findAll(Example,Pageable)", Routing.UNSUPPORTED),
+            Map.entry("count(Example)", Routing.UNSUPPORTED),
+            Map.entry("exists(Example)", Routing.UNSUPPORTED),
+            Map.entry("findBy(Example,Function)", Routing.UNSUPPORTED));
+
+    // the employees a partitioned call returns, put back in the order of what it was asked for
+    private static final Map<Routing, Function<Object, Object>> INPUT_KEYS = Map.of(
+            Routing.IDS, id -> id,
+            Routing.ENTITIES, employee -> emailKey(((Employee) employee).getEmail()),
+            Routing.EMAILS, email -> emailKey((String) email));
+
+    private static final Map<Routing, Function<Employee, Object>> RESULT_KEYS = Map.of(
+            Routing.IDS, Employee::getId,
+            Routing.ENTITIES, employee -> emailKey(employee.getEmail()),
+            Routing.EMAILS, employee -> emailKey(employee.getEmail()));
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparingLong(Employee::getId);
+
+    private static final Object TRANSACTION_SHARD = EmployeeShardingAspect.class.getName() + ".transactionShard";
+
+    private final ShardRoutingDataSource shards;
+
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    private final TransactionAttributeSource transactionAttributes = new AnnotationTransactionAttributeSource();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<Method, Routing> routings = new ConcurrentHashMap<>();
+
+    public EmployeeShardingAspect(ShardRoutingDataSource shards,
+                                  ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.shards = shards;
+        this.transactionManager = transactionManager;
+        checkRoutes(EmployeeRepository.class.getMethods());
+        checkRoutes(EmployeeJdbcRepository.class.getDeclaredMethods());
+    }
+
+    // a repository method this does not know would otherwise be answered from whichever shard is the default
+    private static void checkRoutes(Method[] methods) {
+        List<String> unrouted = Arrays.stream(methods)
+                .filter(method -> Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> !method.isBridge() && !method.isSynthetic())
+                .map(EmployeeShardingAspect::signature)
+                .filter(signature -> !ROUTES.containsKey(signature))
+                .distinct()
+                .sorted()
+                .toList();
+        if (!unrouted.isEmpty()) {
+            throw new IllegalStateException("No shard routing for repository methods " + unrouted);
+        }
+    }
+
+    private static String signature(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    // emails are compared case-insensitively, like the default MySQL collation does
+    private static Object emailKey(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private record ShardCall(int shard, Object[] args) {
+    }
+
+    @Around("execution(* com.projectx.springboottesting.repository.EmployeeRepository.*(..)) || " +
+            "execution(public * com.projectx.springboottesting.repository.EmployeeJdbcRepository.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs();
+        if (method.getDeclaringClass() == Object.class) {
+            return joinPoint.proceed();
+        }
+        // checked at startup, so every method the pointcut matches has a route
+        Routing routing = routings.computeIfAbsent(method, key -> ROUTES.get(signature(key)));
+        return switch (routing) {
+            case ID -> onShard(joinPoint, args, shardForId(method, args));
+            case ENTITY -> onShard(joinPoint, args, shardForEmployee((Employee) args[0]));
+            case EMAIL -> onShard(joinPoint, args, shards.shardForEmail((String) args[0]));
+            case IDS -> partitioned(joinPoint, method, args, routing, id -> shards.shardForId((Long) id));
+            case ENTITIES -> partitioned(joinPoint, method, args, routing,
+                    employee -> shardForEmployee((Employee) employee));
+            case EMAILS -> partitioned(joinPoint, method, args, routing, email -> shards.shardForEmail((String) email));
+            case ALL -> onAllShards(joinPoint, method, args);
+            case TRANSACTION -> onTransactionShard(joinPoint, args);
+            case UNSUPPORTED -> throw new UnsupportedOperationException(method.getDeclaringClass().getSimpleName()
+                    + "." + signature(method) + " cannot be answered across shards");
+        };
+    }
+
+    private int shardForId(Method method, Object[] args) {
+        long id = (Long) args[0];
+        int shard = shards.shardForId(id);
+        // the patches take the new email, or null to keep it, as their last argument
+        if (method.getName().startsWith("patchEmployee")) {
+            checkEmailStaysOnShard(id, (String) args[args.length - 1], shard);
+        }
+        return shard;
+    }
+
+    // a new employee is placed by its email; after that its id names the shard
+    private int shardForEmployee(Employee employee) {
+        if (employee.getId() == 0) {
+            return shards.shardForEmail(employee.getEmail());
+        }
+        int shard = shards.shardForId(employee.getId());
+        checkEmailStaysOnShard(employee.getId(), employee.getEmail(), shard);
+        return shard;
+    }
+
+    private void checkEmailStaysOnShard(long id, String email, int shard) {
+        if (email != null && shards.shardForEmail(email) != shard) {
+            throw new CrossShardUpdateException("Employee " + id + " cannot change its email to " + email
+                    + ", which belongs on another shard");
+        }
+    }
+
+    private Object onShard(ProceedingJoinPoint joinPoint, Object[] args, int shard) throws Throwable {
+        bindToTransaction(shard);
+        try (ShardRoutingDataSource.ShardPin ignored = ShardRoutingDataSource.pinTo(shard)) {
+            return joinPoint.proceed(args);
+        }
+    }
+
+    /**
+     * Remembers the shard of the caller's transaction: its connection is taken from the first shard it touches
+     * and kept until the transaction ends.
+     */
+    private static void bindToTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_SHARD);
+        if (bound == null) {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SHARD, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SHARD);
+                }
+            });
+        } else if (bound != shard) {
+            throw new IllegalStateException("A transaction cannot span shards: it is on shard " + bound
+                    + " and this call needs shard " + shard);
+        }
+    }
+
+    /**
+     * A flush writes what the caller's transaction has pending, all of it on the shard the transaction is on.
+     * Without one, nothing has been written through this persistence context and no shard is needed.
+     */
+    private Object onTransactionShard(ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_SHARD);
+        if (bound == null) {
+            return joinPoint.proceed(args);
+        }
+        return onShard(joinPoint, args, bound);
+    }
+
+    /**
+     * Splits the collection in the first argument by shard and calls each shard with its part. The employees that
+     * come back are put in the order of the elements they match by key: a shard may return fewer than it was given.
+     */
+    private Object partitioned(ProceedingJoinPoint joinPoint, Method method, Object[] args, Routing routing,
+                               ToIntFunction<Object> shardOf) throws Throwable {
+        Map<Integer, List<Object>> parts = new TreeMap<>();
+        Map<Object, Integer> positions = new HashMap<>();
+        Function<Object, Object> inputKey = INPUT_KEYS.get(routing);
+        for (Object element : (Iterable<?>) args[0]) {
+            parts.computeIfAbsent(shardOf.applyAsInt(element), key -> new ArrayList<>()).add(element);
+            positions.putIfAbsent(inputKey.apply(element), positions.size());
+        }
+        if (parts.size() == 1) {
+            Map.Entry<Integer, List<Object>> only = parts.entrySet().iterator().next();
+            return onShard(joinPoint, withFirstArgument(args, only.getValue()), only.getKey());
+        }
+        List<ShardCall> calls = new ArrayList<>();
+        parts.forEach((shard, part) -> calls.add(new ShardCall(shard, withFirstArgument(args, part))));
+        Function<Employee, Object> resultKey = RESULT_KEYS.get(routing);
+        Comparator<Employee> order = Comparator.comparingInt(
+                employee -> positions.getOrDefault(resultKey.apply(employee), Integer.MAX_VALUE));
+        return merge(method, args, order, fanOut(joinPoint, method, calls));
+    }
+
+    private static Object[] withFirstArgument(Object[] args, Object first) {
+        Object[] copy = args.clone();
+        copy[0] = first;
+        return copy;
+    }
+
+    private Object onAllShards(ProceedingJoinPoint joinPoint, Method method, Object[] args) throws Throwable {
+        if (shards.shardCount() == 1) {
+            return onShard(joinPoint, args, 0);
+        }
+        List<ShardCall> calls = new ArrayList<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            calls.add(new ShardCall(shard, args));
+        }
+        return merge(method, args, BY_ID, fanOut(joinPoint, method, calls));
+    }
+
+    /**
+     * Runs the calls in parallel and waits for all of them, so that a failure on one shard never leaves another
+     * shard's stream open; the first failure is thrown with the others suppressed.
+     */
+    private List<Object> fanOut(ProceedingJoinPoint joinPoint, Method method, List<ShardCall> calls) throws Throwable {
+        Object target = joinPoint.getTarget();
+        TransactionDefinition definition = transactionDefinition(method, target.getClass());
+        List<Future<Object>> futures = new ArrayList<>();
+        for (ShardCall call : calls) {
+            futures.add(executor.submit(() -> callShard(target, method, call, definition)));
+        }
+        List<Object> results = new ArrayList<>();
+        Throwable failure = null;
+        for (Future<Object> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException | CancellationException | InterruptedException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(pending -> pending.cancel(true));
+                }
+                if (failure == null) {
+                    failure = cause;
+                } else if (failure != cause) {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            results.forEach(result -> {
+                if (result instanceof Stream<?> stream) {
+                    stream.close();
+                }
+            });
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Calls the target itself, past this advice, with the shard pinned to this virtual thread. A stream holds its
+     * own connection until it is closed, so it is opened outside a transaction that would end on return.
+     */
+    private Object callShard(Object target, Method method, ShardCall call, TransactionDefinition definition) {
+        try (ShardRoutingDataSource.ShardPin ignored = ShardRoutingDataSource.pinTo(call.shard())) {
+            if (Stream.class.isAssignableFrom(method.getReturnType())) {
+                return invoke(target, method, call.args());
+            }
+            return new TransactionTemplate(transactionManager.getObject(), definition)
+                    .execute(status -> invoke(target, method, call.args()));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the method's own @Transactional settings when it declares them; Spring Data's inherited methods join this one
+    private TransactionDefinition transactionDefinition(Method method, Class<?> targetClass) {
+        TransactionDefinition definition = transactionAttributes.getTransactionAttribute(method, targetClass);
+        return definition != null ? definition : new DefaultTransactionDefinition();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object merge(Method method, Object[] args, Comparator<Employee> order, List<Object> results) {
+        Class<?> type = method.getReturnType();
+        if (type == void.class) {
+            return null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return results.stream().mapToInt(result -> (Integer) result).sum();
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        if (type == Optional.class) {
+            return results.stream().map(result -> (Optional<?>) result).filter(Optional::isPresent).findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == Employee.class) {
+            List<Object> found = results.stream().filter(result -> result != null).toList();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : found.get(0);
+        }
+        if (type == EmployeeCollectionVersion.class) {
+            // each shard's counter only grows, so their sum still moves with every change on any shard
+            return new EmployeeCollectionVersion(results.stream()
+                    .mapToLong(result -> ((EmployeeCollectionVersion) result).changes())
+                    .sum());
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            Set<Object> union = new LinkedHashSet<>();
+            results.forEach(result -> union.addAll((Set<Object>) result));
+            return union;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return mergeLists(args, order, results);
+        }
+        if (Stream.class.isAssignableFrom(type)) {
+            List<Stream<Object>> streams = results.stream().map(result -> (Stream<Object>) result).toList();
+            if (method.getGenericReturnType() instanceof ParameterizedType returnType
+                    && returnType.getActualTypeArguments()[0] == Employee.class) {
+                return mergeById(streams);
+            }
+            // Stream.concat closes both sides, so streams the consumer never reached are closed too
+            return streams.stream().reduce(Stream.empty(), Stream::concat);
+        }
+        throw new UnsupportedOperationException("Cannot merge " + type.getSimpleName() + " results of "
+                + method.getName() + " across shards");
+    }
+
+    /**
+     * Lists of employees are sorted by the given order and cut to the call's {@link Limit}, if it has one.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> mergeLists(Object[] args, Comparator<Employee> order, List<Object> results) {
+        List<Object> merged = new ArrayList<>();
+        results.forEach(result -> merged.addAll((List<Object>) result));
+        if (merged.stream().allMatch(Employee.class::isInstance)) {
+            merged.sort((left, right) -> order.compare((Employee) left, (Employee) right));
+        }
+        for (Object arg : args) {
+            if (arg instanceof Limit limit && limit.isLimited() && merged.size() > limit.max()) {
+                return new ArrayList<>(merged.subList(0, limit.max()));
+            }
+        }
+        return merged;
+    }
+
+    private record Head(Employee employee, Iterator<Object> rest) {
+    }
+
+    // each shard's stream is already in id order, so a k-way merge keeps one row per shard in memory
+    private static Stream<Employee> mergeById(List<Stream<Object>> streams) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::employee, BY_ID));
+        Iterator<Employee> merged = new Iterator<>() {
+
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                if (!started) {
+                    started = true;
+                    streams.forEach(stream -> advance(stream.iterator()));
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Employee next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Head head = heads.poll();
+                advance(head.rest());
+                return head.employee();
+            }
+
+            private void advance(Iterator<Object> rest) {
+                if (rest.hasNext()) {
+                    heads.add(new Head((Employee) rest.next(), rest));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
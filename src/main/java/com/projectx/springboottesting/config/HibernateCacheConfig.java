@@ -0,0 +1,91 @@
+package com.projectx.springboottesting.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.projectx.springboottesting.model.Employee;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Regions of the Hibernate second-level and query cache, kept in Caffeine through JCache. Each region is created
+ * here with its own bound, and Hibernate is told to fail rather than create an unbounded region for a name it
+ * does not find. Hibernate's statistics are published by Spring Boot as {@code hibernate.*} meters; the hit ratio
+ * of each region is added as {@code employee.hibernate.cache.hit.ratio}.
+ */
+@Configuration
+@Profile("!reactive")
+public class HibernateCacheConfig {
+
+    private static final List<String> REGIONS = List.of(Employee.CACHE_REGION,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${employee.second-level-cache.maximum-size:10000}") long maximumSize,
+            @Value("${employee.second-level-cache.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${employee.query-cache.maximum-size:10000}") long queryMaximumSize) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        cacheManager.createCache(Employee.CACHE_REGION, region(OptionalLong.of(maximumSize), expireAfterWrite));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.of(queryMaximumSize), expireAfterWrite));
+        // one entry per table, and evicting one would make cached queries on that table look fresh again
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), null));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        // Hibernate already stores disassembled copies, so JCache's default copy on every get and put is wasted
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> REGIONS.forEach(region -> Gauge.builder("employee.hibernate.cache.hit.ratio",
+                        statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                .tag("region", region)
+                .description("Share of lookups in the region that found an entry, since startup")
+                .register(registry));
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return Double.NaN;
+        }
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) region.getHitCount() / lookups;
+    }
+}
@@ -0,0 +1,19 @@
+package com.projectx.springboottesting.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Records {@code @Timed} beans such as the employee service. Controllers and Spring Data repositories are
+     * timed by Spring Boot itself ({@code http.server.requests}, {@code spring.data.repository.invocations}).
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.projectx.springboottesting.config;
+
+import com.projectx.springboottesting.controller.EmployeeHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Routes of the {@code reactive} profile. The CRUD, paging and streaming endpoints of {@code EmployeeController};
+ * search, batch, import, export and write-behind ingest stay servlet-only.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRoutesConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> employeeRoutes(EmployeeHandler handler) {
+        return route()
+                .path("/api/employees", builder -> builder
+                        .POST("", handler::createEmployee)
+                        // the most specific GET first, as with the servlet mappings
+                        .GET("", queryParam("limit", limit -> true), handler::getEmployeePage)
+                        .GET("", ReactiveRoutesConfig::acceptsNdjson, handler::streamAllEmployees)
+                        .GET("", handler::getAllEmployees)
+                        .GET("/{id}", handler::getEmployeeById)
+                        .PUT("/{id}", handler::updateEmployee)
+                        .PATCH("/{id}", handler::patchEmployee)
+                        .DELETE("", queryParam("ids", ids -> true), handler::deleteEmployees)
+                        .DELETE("/{id}", handler::deleteEmployee))
+                .build();
+    }
+
+    // accept(APPLICATION_NDJSON) would also match */*, and a plain client would get a stream instead of an array
+    private static boolean acceptsNdjson(ServerRequest request) {
+        return request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+}
@@ -0,0 +1,64 @@
+package com.projectx.springboottesting.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for a short window after it wrote, so it sees its own changes
+ * even while the replicas lag. A write request sets a cookie holding the end of the window; requests that
+ * carry an unexpired cookie, and the write requests themselves, are pinned to the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "employee-read-primary-until";
+
+    private final Duration window;
+
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+        if (write) {
+            // set before the chain runs, the response may be committed by the time it returns
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(clock.millis() + window.toMillis()));
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        } else if (!withinWindow(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ReplicaRoutingDataSource.PrimaryPin ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private boolean withinWindow(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > clock.millis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
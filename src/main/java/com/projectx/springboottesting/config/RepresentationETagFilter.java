@@ -0,0 +1,214 @@
+package com.projectx.springboottesting.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Makes the ETag of a response name its representation, not only the employee version or collection change count
+ * the controllers derive it from. JSON keeps {@code "3"}; the same version as CBOR is {@code "3-cbor"}, and once
+ * {@link ResponseCompressionFilter} has compressed it {@code "3-cbor-gzip"}. Every response also gets
+ * {@code Vary: Accept}, so caches keep one entry per format as they keep one per coding.
+ * <p>
+ * The controllers compare versions, so the suffixes are stripped from If-None-Match and If-Match before they see
+ * them, and a 304 carries back the tag the client sent. The tags here are numbers, which never contain a '-'.
+ * This wraps the compression filter, which has set Content-Encoding by the time the body starts.
+ */
+public class RepresentationETagFilter extends OncePerRequestFilter {
+
+    private static final Pattern SUFFIXED_TAG = Pattern.compile("\"([^\"-]*)-[^\"]*\"");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Map<String, String> sentTags = new HashMap<>();
+        ETagResponse etagResponse = new ETagResponse(response, sentTags);
+        filterChain.doFilter(new UnsuffixedRequest(request, sentTags), etagResponse);
+        if (!isAsyncStarted(request)) {
+            // a 304, 204 or error without a body never asked for the output stream
+            etagResponse.applyETag();
+        }
+    }
+
+    /**
+     * @return {@code tags} with every suffix removed; each stripped tag is remembered with the one the client sent
+     */
+    static String unsuffixed(String tags, Map<String, String> sentTags) {
+        Matcher matcher = SUFFIXED_TAG.matcher(tags);
+        StringBuilder stripped = new StringBuilder();
+        while (matcher.find()) {
+            String tag = "\"" + matcher.group(1) + "\"";
+            if (sentTags != null) {
+                sentTags.putIfAbsent(tag, matcher.group());
+            }
+            matcher.appendReplacement(stripped, Matcher.quoteReplacement(tag));
+        }
+        return matcher.appendTail(stripped).toString();
+    }
+
+    /**
+     * @return {@code etag} with the format, unless JSON, and the content coding, if any, appended inside its quotes
+     */
+    static String suffixed(String etag, String contentType, String contentEncoding) {
+        StringBuilder suffix = new StringBuilder();
+        if (contentType != null) {
+            try {
+                String subtype = MediaType.parseMediaType(contentType).getSubtype();
+                if (!subtype.equals("json") && !subtype.endsWith("+json")) {
+                    // x-jackson-smile is "smile", x-protobuf "protobuf"
+                    suffix.append('-').append(subtype.substring(subtype.lastIndexOf('-') + 1));
+                }
+            } catch (IllegalArgumentException e) {
+                // no format to name
+            }
+        }
+        if (contentEncoding != null && !contentEncoding.isBlank()) {
+            suffix.append('-').append(contentEncoding.trim());
+        }
+        if (suffix.isEmpty() || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + suffix + "\"";
+    }
+
+    private static final class UnsuffixedRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, String> sentTags;
+
+        private UnsuffixedRequest(HttpServletRequest request, Map<String, String> sentTags) {
+            super(request);
+            this.sentTags = sentTags;
+        }
+
+        private static boolean conditional(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MATCH.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return value == null || !conditional(name) ? value : unsuffixed(value, remembered(name));
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            Enumeration<String> values = super.getHeaders(name);
+            if (values == null || !conditional(name)) {
+                return values;
+            }
+            List<String> stripped = Collections.list(values).stream()
+                    .map(value -> unsuffixed(value, remembered(name)))
+                    .toList();
+            return Collections.enumeration(stripped);
+        }
+
+        // only If-None-Match is answered with a tag, the one of the 304
+        private Map<String, String> remembered(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? sentTags : null;
+        }
+    }
+
+    /**
+     * Holds the ETag back until the body starts, when Content-Type and Content-Encoding are final.
+     */
+    private static final class ETagResponse extends HttpServletResponseWrapper {
+
+        private final Map<String, String> sentTags;
+
+        private String etag;
+
+        private boolean applied;
+
+        private ETagResponse(HttpServletResponse response, Map<String, String> sentTags) {
+            super(response);
+            this.sentTags = sentTags;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.ETAG.equalsIgnoreCase(name) && !applied) {
+                etag = value;
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.ETAG.equalsIgnoreCase(name) && !applied) {
+                etag = value;
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return HttpHeaders.ETAG.equalsIgnoreCase(name) && !applied ? etag != null : super.containsHeader(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.ETAG.equalsIgnoreCase(name) && !applied ? etag : super.getHeader(name);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            applyETag();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            applyETag();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            applyETag();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            etag = null;
+            applied = false;
+        }
+
+        private void applyETag() {
+            if (applied) {
+                return;
+            }
+            applied = true;
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            if (etag == null) {
+                return;
+            }
+            if (getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+                super.setHeader(HttpHeaders.ETAG, sentTags.getOrDefault(etag, etag));
+            } else {
+                super.setHeader(HttpHeaders.ETAG, suffixed(etag, getContentType(), getHeader(HttpHeaders.CONTENT_ENCODING)));
+            }
+        }
+    }
+}
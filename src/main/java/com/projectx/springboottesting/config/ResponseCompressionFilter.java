@@ -0,0 +1,349 @@
+package com.projectx.springboottesting.config;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with zstd or gzip, whichever the client's Accept-Encoding prefers (zstd on a tie), once
+ * the body reaches {@code minResponseSize} bytes and its content type is one of {@code mimeTypes}. Smaller bodies
+ * are sent as they are: below a couple of kilobytes the encoding saves less than it costs.
+ * <p>
+ * The body is held back until the threshold is reached, then compressed as it streams, so NDJSON and CSV
+ * streams of any size are compressed without being buffered. A flush before the threshold sends the response
+ * uncompressed, which keeps small flushed messages such as import progress events interactive.
+ * ETags are given the coding as a suffix by {@link RepresentationETagFilter}, which wraps this filter.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private final int minResponseSize;
+
+    private final List<MediaType> mimeTypes;
+
+    public ResponseCompressionFilter(int minResponseSize, List<MediaType> mimeTypes) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    /**
+     * Content codings this filter produces, in order of preference.
+     */
+    public enum Encoding {
+        ZSTD("zstd") {
+            @Override
+            public OutputStream wrap(OutputStream out) throws IOException {
+                return new ZstdOutputStream(out);
+            }
+        },
+        GZIP("gzip") {
+            @Override
+            public OutputStream wrap(OutputStream out) throws IOException {
+                // sync flush, so a flushed stream reaches the client instead of waiting in the deflater
+                return new GZIPOutputStream(out, 8 * 1024, true);
+            }
+        };
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        public abstract OutputStream wrap(OutputStream out) throws IOException;
+
+        /**
+         * @return the coding with the highest q-value in {@code acceptEncoding}, or {@code null} when none is acceptable
+         */
+        static Encoding negotiate(String acceptEncoding) {
+            if (!StringUtils.hasText(acceptEncoding)) {
+                return null;
+            }
+            Encoding best = null;
+            double bestQuality = 0;
+            for (Encoding encoding : values()) {
+                double quality = quality(acceptEncoding, encoding.token);
+                if (quality > bestQuality) {
+                    best = encoding;
+                    bestQuality = quality;
+                }
+            }
+            return best;
+        }
+
+        // RFC 9110: an explicit entry wins over "*"; no q parameter means 1
+        private static double quality(String acceptEncoding, String token) {
+            double wildcard = 0;
+            for (String entry : acceptEncoding.split(",")) {
+                String[] parts = entry.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equals(token)) {
+                    return quality;
+                }
+                if (coding.equals("*")) {
+                    wildcard = quality;
+                }
+            }
+            return wildcard;
+        }
+    }
+
+    // a streamed body is written on an async dispatch, that is where its compressor is finished
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompressingResponse compressing = WebUtils.getNativeResponse(response, CompressingResponse.class);
+        if (compressing == null) {
+            Encoding encoding = "HEAD".equals(request.getMethod()) ? null
+                    : Encoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            compressing = new CompressingResponse(response, encoding);
+            response = compressing;
+        }
+        filterChain.doFilter(request, response);
+        if (!isAsyncStarted(request)) {
+            compressing.finish();
+        }
+    }
+
+    private boolean compressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.includes(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holds the body back until the threshold decides between compressing and passing it through.
+     * Content-Length set by the application is dropped; it would be wrong once the body is compressed.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final Encoding encoding;
+
+        private final byte[] buffer = new byte[minResponseSize];
+
+        private int buffered;
+
+        // null until the threshold or a flush decides; then the compressor or the raw response stream
+        private OutputStream target;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private CompressingResponse(HttpServletResponse response, Encoding encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new BodyStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                Charset charset = Charset.forName(getCharacterEncoding());
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            getOutputStream().flush();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (target == null) {
+                buffered = 0;
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (target == null) {
+                buffered = 0;
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                if (buffered + length <= buffer.length) {
+                    System.arraycopy(bytes, offset, buffer, buffered, length);
+                    buffered += length;
+                    return;
+                }
+                start(true);
+            }
+            target.write(bytes, offset, length);
+        }
+
+        private void start(boolean compress) throws IOException {
+            // headers first: a wrapper below may commit to them as soon as the stream is asked for
+            if (compress && compressible(getContentType()) && !containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token());
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                target = encoding.wrap(getResponse().getOutputStream());
+            } else {
+                target = getResponse().getOutputStream();
+            }
+            target.write(buffer, 0, buffered);
+        }
+
+        private void flush() throws IOException {
+            if (target == null) {
+                start(false);
+            }
+            target.flush();
+        }
+
+        /**
+         * Completes the response: a body that stayed below the threshold goes out as is, with its length.
+         */
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (buffered > 0) {
+                    getResponse().setContentLength(buffered);
+                    getResponse().getOutputStream().write(buffer, 0, buffered);
+                }
+                return;
+            }
+            if (target != getResponse().getOutputStream()) {
+                // ends the gzip member or zstd frame, and closes the response stream as the container would
+                target.close();
+            }
+        }
+
+        private final class BodyStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                CompressingResponse.this.write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                CompressingResponse.this.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported by compressed responses");
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.projectx.springboottesting.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Response formats of the servlet stack. JSON stays the default; CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}) come with their Jackson dataformats on the classpath, and
+ * {@code application/x-protobuf} is added here. Large responses are compressed with zstd or gzip, and ETags are
+ * made to tell these representations apart.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    // last, so that Accept: */* and a missing Accept header still resolve to JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new EmployeeProtobufHttpMessageConverter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(
+            @Value("${employee.compression.enabled:true}") boolean enabled,
+            @Value("${employee.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${employee.compression.mime-types:application/json,application/x-ndjson,text/csv,application/cbor,"
+                    + "application/x-jackson-smile,application/x-protobuf}") List<MediaType> mimeTypes) {
+        FilterRegistrationBean<ResponseCompressionFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCompressionFilter((int) minResponseSize.toBytes(), mimeTypes));
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    // outside the compression filter, so that it sees the Content-Encoding that filter chose
+    @Bean
+    public FilterRegistrationBean<RepresentationETagFilter> representationETagFilter() {
+        FilterRegistrationBean<RepresentationETagFilter> registration =
+                new FilterRegistrationBean<>(new RepresentationETagFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,99 @@
+package com.projectx.springboottesting.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends connections to the shard pinned on the current thread. Employees are placed by a hash of their email,
+ * and each shard hands out ids interleaved with the others' (shard {@code k} of {@code n} generates ids
+ * {@code k+1, k+1+n, ...}), so an id alone names its shard and ids are unique across shards.
+ * Connections taken with no shard pinned, such as Hibernate's at startup, go to the first shard.
+ * Like {@link ReplicaRoutingDataSource}, the choice is made when the connection is taken, so this sits behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} to let a transaction begin first.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final ThreadLocal<Integer> PINNED_SHARD = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < this.shards.size(); i++) {
+            targets.put(i, this.shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(this.shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int shardForId(long id) {
+        return Math.floorMod(id - 1, shards.size());
+    }
+
+    // emails are compared case-insensitively, like the default MySQL collation does
+    public int shardForEmail(String email) {
+        if (email == null) {
+            return 0;
+        }
+        int hash = email.toLowerCase(Locale.ROOT).hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.size());
+    }
+
+    /**
+     * Sends every connection taken on this thread to the given shard until the returned pin is closed. Pins nest.
+     */
+    public static ShardPin pinTo(int shard) {
+        Integer previous = PINNED_SHARD.get();
+        PINNED_SHARD.set(shard);
+        return () -> {
+            if (previous == null) {
+                PINNED_SHARD.remove();
+            } else {
+                PINNED_SHARD.set(previous);
+            }
+        };
+    }
+
+    public static Integer pinnedShard() {
+        return PINNED_SHARD.get();
+    }
+
+    public interface ShardPin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PINNED_SHARD.get();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.projectx.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads employees over the databases in {@code employee.datasource.sharding.shards} when
+ * {@code employee.datasource.sharding.enabled=true}; {@link EmployeeShardingAspect} sends each repository call to
+ * its shards. Not combined with replica routing, which would define the datasource as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.datasource.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+        List<ShardingProperties.Shard> configured = properties.shards();
+        List<DataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : configured) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setMaximumPoolSize(shard.maximumPoolSize());
+            if (DatabaseDriver.fromJdbcUrl(shard.url()) == DatabaseDriver.MYSQL) {
+                // MySQL interleaves AUTO_INCREMENT values per session, so every connection gets the setting.
+                // Connector/J reads the increment before this runs; EmployeeJdbcRepository.insertAll does not
+                // take its batch keys for that reason
+                dataSource.setConnectionInitSql("set session auto_increment_increment = " + configured.size()
+                        + ", auto_increment_offset = " + (shards.size() + 1));
+            }
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // the lazy proxy defers the real connection until the repository call has pinned its shard
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Spring Boot's Flyway would only migrate the first shard, through the routing datasource. This applies the
+     * same configuration to each shard, then lines up the id sequence of H2 shards, which keep it on the column.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRoutingDataSource shardRoutingDataSource,
+                                                          ShardingProperties properties) {
+        return flyway -> {
+            for (int i = 0; i < shardRoutingDataSource.shardCount(); i++) {
+                DataSource shard = shardRoutingDataSource.shard(i);
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+                DatabaseDriver driver = DatabaseDriver.fromJdbcUrl(properties.shards().get(i).url());
+                if (driver == DatabaseDriver.H2) {
+                    interleaveH2Ids(new JdbcTemplate(shard), i, shardRoutingDataSource.shardCount());
+                } else if (driver != DatabaseDriver.MYSQL) {
+                    throw new IllegalStateException("Interleaved ids are only set up for MySQL and H2 shards, not " + driver);
+                }
+            }
+        };
+    }
+
+    // restarts the identity at the first id above the current rows that belongs to this shard
+    private static void interleaveH2Ids(JdbcTemplate jdbcTemplate, int shard, int shardCount) {
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from employee", Long.class);
+        long nextId = maxId + 1 + Math.floorMod(shard - maxId, shardCount);
+        jdbcTemplate.execute("alter table employee alter column id set increment by " + shardCount);
+        jdbcTemplate.execute("alter table employee alter column id restart with " + nextId);
+    }
+
+    // a cached query result is keyed by its SQL and parameters, not by the shard it was read from
+    @Bean
+    public HibernatePropertiesCustomizer shardedQueryCacheCustomizer() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    @Bean
+    public EmployeeShardingAspect employeeShardingAspect(ShardRoutingDataSource shardRoutingDataSource,
+                                                         ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new EmployeeShardingAspect(shardRoutingDataSource, transactionManager);
+    }
+}
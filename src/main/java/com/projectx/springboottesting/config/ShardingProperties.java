@@ -0,0 +1,17 @@
+package com.projectx.springboottesting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code employee.datasource.sharding.*}: the databases employees are spread over, replacing {@code spring.datasource.*}.
+ * The shard of an employee depends on the number of shards, so the list can only grow by moving rows.
+ */
+@ConfigurationProperties("employee.datasource.sharding")
+public record ShardingProperties(boolean enabled, @DefaultValue List<Shard> shards) {
+
+    public record Shard(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,206 @@
+package com.projectx.springboottesting.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projectx.springboottesting.dto.SqlStatementReport;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Times every statement executed through the proxied datasource and aggregates the timings per normalized SQL:
+ * literals become {@code ?}, runs of whitespace one space and {@code IN} lists a single {@code (?, ...)}, so all
+ * executions of a repository method land in one entry. Statements at or over the slow threshold are logged to
+ * {@code com.projectx.springboottesting.sql.slow}, a sampled share of them with their bind values.
+ * <p>
+ * Per statement the cost is two clock reads, a cache lookup of the SQL string and a histogram increment; the
+ * normalization runs once per distinct SQL string, and bind values are only formatted for sampled slow statements.
+ */
+public class SqlStatementStats implements QueryExecutionListener {
+
+    public enum Order {
+        TOTAL(SqlStatementReport::totalMillis),
+        COUNT(SqlStatementReport::count),
+        MEAN(SqlStatementReport::meanMillis),
+        P99(SqlStatementReport::p99Millis),
+        MAX(SqlStatementReport::maxMillis);
+
+        private final ToDoubleFunction<SqlStatementReport> key;
+
+        Order(ToDoubleFunction<SqlStatementReport> key) {
+            this.key = key;
+        }
+    }
+
+    static final String OTHER_STATEMENTS = "(other statements)";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("com.projectx.springboottesting.sql.slow");
+
+    private static final String START = SqlStatementStats.class.getName() + ".start";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int MAX_BIND_VALUE_LENGTH = 100;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+
+    private final double bindSampleRate;
+
+    private final int maxStatements;
+
+    // normalized SQL -> timings, bounded by maxStatements
+    private final Map<String, Timings> statements = new ConcurrentHashMap<>();
+
+    // SQL as executed -> its entry, so the same string is normalized only once
+    private final Cache<String, Timings> bySql;
+
+    public SqlStatementStats(Duration slowThreshold, double bindSampleRate, int maxStatements) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.bindSampleRate = bindSampleRate;
+        this.maxStatements = Math.max(1, maxStatements);
+        this.bySql = Caffeine.newBuilder().maximumSize(4L * this.maxStatements).build();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        // a plain Statement batch can mix statements; its time is charged to the first one
+        QueryInfo query = queryInfoList.get(0);
+        bySql.get(query.getQuery(), this::timingsFor).record(elapsed, execInfo.isSuccess());
+        if (slowThresholdNanos > 0 && elapsed >= slowThresholdNanos) {
+            logSlow(execInfo, query, elapsed);
+        }
+    }
+
+    private Timings timingsFor(String sql) {
+        String normalized = normalize(sql);
+        Timings timings = statements.get(normalized);
+        if (timings != null) {
+            return timings;
+        }
+        if (statements.size() >= maxStatements) {
+            return statements.computeIfAbsent(OTHER_STATEMENTS, Timings::new);
+        }
+        return statements.computeIfAbsent(normalized, Timings::new);
+    }
+
+    private void logSlow(ExecutionInfo execInfo, QueryInfo query, long elapsed) {
+        String batch = execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "";
+        String failed = execInfo.isSuccess() ? "" : " failed";
+        if (ThreadLocalRandom.current().nextDouble() < bindSampleRate && !query.getParametersList().isEmpty()) {
+            slowLog.warn("{} ms{}{}: {} with {}", TimeUnit.NANOSECONDS.toMillis(elapsed), batch, failed,
+                    query.getQuery(), bindValues(query.getParametersList().get(0)));
+        } else {
+            slowLog.warn("{} ms{}{}: {}", TimeUnit.NANOSECONDS.toMillis(elapsed), batch, failed, query.getQuery());
+        }
+    }
+
+    // in the order they were set; a batch logs the values of its first row
+    private static String bindValues(List<ParameterSetOperation> parameters) {
+        return parameters.stream()
+                .map(ParameterSetOperation::getArgs)
+                .filter(args -> args.length > 1)
+                .map(args -> args[0] + "=" + bindValue(args[1]))
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String bindValue(Object value) {
+        String text = Objects.toString(value);
+        return text.length() > MAX_BIND_VALUE_LENGTH ? text.substring(0, MAX_BIND_VALUE_LENGTH) + "..." : text;
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return IN_LIST.matcher(normalized).replaceAll("(?, ...)");
+    }
+
+    public List<SqlStatementReport> top(int limit, Order order) {
+        return statements.values().stream()
+                .map(Timings::report)
+                .sorted(Comparator.comparingDouble(order.key).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        bySql.invalidateAll();
+        statements.clear();
+    }
+
+    private static final class Timings {
+
+        private final String sql;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        private final Histogram micros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2);
+
+        Timings(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos, boolean success) {
+            count.increment();
+            if (!success) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            micros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+        }
+
+        SqlStatementReport report() {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1e6;
+            Histogram snapshot = micros.copy();
+            return new SqlStatementReport(sql, executions, errors.sum(), totalMillis,
+                    executions == 0 ? 0 : totalMillis / executions,
+                    snapshot.getValueAtPercentile(50) / 1e3, snapshot.getValueAtPercentile(95) / 1e3,
+                    snapshot.getValueAtPercentile(99) / 1e3, maxNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.projectx.springboottesting.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} bean, auto-configured or the replica router, in a proxy that reports
+ * every statement to {@link SqlStatementStats}, so Hibernate, the Spring Data repositories and the JDBC templates
+ * are all timed. Only that bean is wrapped: the pools behind the router are reached through it and would otherwise
+ * be counted twice. {@code employee.sql-stats.enabled=false} leaves the datasource unproxied.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SqlStatementStatsProperties.class)
+public class SqlStatementStatsConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public SqlStatementStats sqlStatementStats(SqlStatementStatsProperties properties) {
+        return new SqlStatementStats(properties.slowThreshold(), properties.bindSampleRate(),
+                properties.maxStatements());
+    }
+
+    // static, so the post-processor exists before the datasource it wraps is created
+    @Bean
+    public static BeanPostProcessor sqlStatementStatsDataSourceProxy(ObjectProvider<SqlStatementStats> sqlStatementStats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(sqlStatementStats.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatementStatsEndpoint sqlStatementStatsEndpoint(SqlStatementStats sqlStatementStats) {
+        return new SqlStatementStatsEndpoint(sqlStatementStats);
+    }
+}
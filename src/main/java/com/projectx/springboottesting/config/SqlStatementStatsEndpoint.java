@@ -0,0 +1,36 @@
+package com.projectx.springboottesting.config;
+
+import com.projectx.springboottesting.dto.SqlStatementReport;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/sqlstats?top=20&orderBy=total} lists the costliest statements, ordered by total, count,
+ * mean, p99 or max time; {@code DELETE /actuator/sqlstats} starts the statistics over.
+ */
+@Endpoint(id = "sqlstats")
+public class SqlStatementStatsEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final SqlStatementStats sqlStatementStats;
+
+    public SqlStatementStatsEndpoint(SqlStatementStats sqlStatementStats) {
+        this.sqlStatementStats = sqlStatementStats;
+    }
+
+    @ReadOperation
+    public List<SqlStatementReport> report(@Nullable Integer top, @Nullable SqlStatementStats.Order orderBy) {
+        return sqlStatementStats.top(top == null ? DEFAULT_TOP : Math.max(0, top),
+                orderBy == null ? SqlStatementStats.Order.TOTAL : orderBy);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatementStats.reset();
+    }
+}
@@ -0,0 +1,20 @@
+package com.projectx.springboottesting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code employee.sql-stats.*}: timing of every JDBC statement sent through the application's datasource.
+ *
+ * @param slowThreshold  statements taking at least this long are logged; zero turns the slow log off
+ * @param bindSampleRate share of logged slow statements whose bind values are logged with them
+ * @param maxStatements  distinct normalized statements tracked; any further ones are counted together
+ */
+@ConfigurationProperties("employee.sql-stats")
+public record SqlStatementStatsProperties(@DefaultValue("true") boolean enabled,
+                                          @DefaultValue("200ms") Duration slowThreshold,
+                                          @DefaultValue("0.1") double bindSampleRate,
+                                          @DefaultValue("200") int maxStatements) {
+}
@@ -1,59 +1,360 @@
 package com.projectx.springboottesting.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeImportEvent;
+import com.projectx.springboottesting.dto.EmployeeIngestStatus;
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.exception.CrossShardUpdateException;
+import com.projectx.springboottesting.exception.PreconditionFailedException;
 import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeImporter;
 import com.projectx.springboottesting.service.EmployeeService;
+import com.projectx.springboottesting.service.EmployeeWriteBehindQueue;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private final EmployeeWriteBehindQueue writeBehindQueue;
+
+    private final EmployeeImporter employeeImporter;
+
+    private final ObjectWriter employeeWriter;
+
+    private final ObjectWriter importEventWriter;
+
+    public EmployeeController(EmployeeService employeeService, EmployeeWriteBehindQueue writeBehindQueue,
+                              EmployeeImporter employeeImporter, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.writeBehindQueue = writeBehindQueue;
+        this.employeeImporter = employeeImporter;
+        this.employeeWriter = objectMapper.writerFor(Employee.class);
+        this.importEventWriter = objectMapper.writerFor(EmployeeImportEvent.class);
     }
 
+    /**
+     * With {@code Prefer: respond-async} and the write-behind queue enabled, the employee is queued and 202 returned
+     * with a tracking URI; otherwise it is inserted before responding.
+     */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee) {
-        return employeeService.saveEmployee(employee);
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee,
+                                            @RequestHeader(value = "Prefer", required = false) List<String> preferences) {
+        if (!prefersRespondAsync(preferences) || !writeBehindQueue.isEnabled()) {
+            // a preference, not a demand: fall back to the synchronous insert
+            return new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+        }
+        return writeBehindQueue.offer(employee)
+                .<ResponseEntity<?>>map(status -> ResponseEntity.accepted()
+                        .location(URI.create("/api/employees/ingest/" + status.trackingId()))
+                        .header("Preference-Applied", "respond-async")
+                        .body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
     }
 
+    // RFC 7240: comma-separated preferences, each a token with an optional value and parameters after ';'
+    static boolean prefersRespondAsync(List<String> preferences) {
+        if (preferences == null) {
+            return false;
+        }
+        for (String header : preferences) {
+            for (String preference : header.split(",")) {
+                String token = preference.split("[;=]", 2)[0].trim();
+                if (token.equalsIgnoreCase("respond-async")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @GetMapping("search")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam("q") String query,
+                                                          @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (query.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeService.searchEmployees(query, limit));
+    }
+
+    @GetMapping("ingest/{trackingId}")
+    public ResponseEntity<EmployeeIngestStatus> getIngestStatus(@PathVariable("trackingId") String trackingId) {
+        return writeBehindQueue.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("batch")
+    public ResponseEntity<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees) {
+        if (employees.isEmpty() || employees.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeService.saveEmployees(employees));
+    }
+
+    /**
+     * Imports a CSV or NDJSON body of any size and streams an NDJSON report back while it runs: one line per
+     * rejected input line, running totals after each committed chunk, and the final totals. The body is read
+     * on the request thread only as fast as chunks are written, so TCP flow control throttles the client.
+     */
+    @PostMapping(value = "import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importEmployees(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body,
+                                HttpServletResponse response) throws IOException {
+        EmployeeImporter.Format format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? EmployeeImporter.Format.NDJSON
+                : EmployeeImporter.Format.CSV;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        employeeImporter.importEmployees(body, format, charset, event -> {
+            try {
+                out.write(importEventWriter.writeValueAsBytes(event));
+                out.write('\n');
+                // rejections are buffered, the totals let the client follow along
+                if (event.type() != EmployeeImportEvent.Type.REJECTED) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
+    // no @ResponseStatus here: it would overwrite the 304 set by checkNotModified
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployee() {
+    public List<Employee> getAllEmployee(WebRequest request) {
+        if (request.checkNotModified(employeeService.getCollectionVersion().etag())) {
+            return null;
+        }
         return employeeService.getAllEmployees();
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<EmployeePage> getEmployeePage(@RequestParam("limit") int limit,
+                                                        @RequestParam(value = "after", required = false) String after,
+                                                        WebRequest request) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        long afterId;
+        try {
+            afterId = after == null ? 0L : EmployeePage.decodeCursor(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(employeeService.getCollectionVersion().etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(employeeService.getEmployeePage(afterId, limit));
+    }
+
+    /**
+     * Streams every employee as one JSON object per line. Like the CSV export, it writes on the request thread
+     * rather than as a StreamingResponseBody, which the async request timeout would cut off mid-stream.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllEmployees(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        employeeService.streamAllEmployees(employee -> {
+            try {
+                out.write(employeeWriter.writeValueAsBytes(employee));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
+    /**
+     * Streams every employee as CSV over the forward-only JDBC cursor, one row at a time, so the heap stays
+     * the same whatever the table size. It runs on the request thread for the same reason as the NDJSON stream:
+     * an export of tens of millions of rows outlives the async request timeout.
+     */
+    @GetMapping(value = "export", produces = TEXT_CSV_VALUE)
+    public void exportEmployees(HttpServletResponse response) throws IOException {
+        response.setContentType(TEXT_CSV_VALUE + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.csv\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        // the same columns POST import reads back
+        out.write("id,firstName,lastName,email,version\n");
+        employeeService.streamAllEmployees(employee -> {
+            try {
+                out.write(Long.toString(employee.getId()));
+                out.write(',');
+                writeCsvField(out, employee.getFirstName());
+                out.write(',');
+                writeCsvField(out, employee.getLastName());
+                out.write(',');
+                writeCsvField(out, employee.getEmail());
+                out.write(',');
+                out.write(Long.toString(employee.getVersion()));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
     @GetMapping("{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long employeeId) {
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long employeeId, WebRequest request) {
+        // a conditional GET only needs the version: from the cached employee, or else the version column alone
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = employeeService.getEmployeeVersion(employeeId);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(String.valueOf(version.get()))) {
+                return null;
+            }
+        }
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(String.valueOf(employee.getVersion())).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * The loaded version travels with the entity, so a concurrent update between the read and the write
+     * fails with 409 instead of being overwritten. With If-Match the client's own version must still be current.
+     */
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id")long employeeId, @RequestBody Employee employee) {
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id")long employeeId, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
         return employeeService.getEmployeeById(employeeId)
                 .map(emp -> {
+                    if (expectedVersion != null && expectedVersion != emp.getVersion()) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                    }
                     emp.setFirstName(employee.getFirstName());
                     emp.setLastName(employee.getLastName());
                     emp.setEmail(employee.getEmail());
-                    Employee updatedEmployee = employeeService.updateEmployee(employee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    Employee updatedEmployee = employeeService.updateEmployee(emp);
+                    return ResponseEntity.ok().eTag(String.valueOf(updatedEmployee.getVersion())).body(updatedEmployee);
                 }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId, @RequestBody Employee changes,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        if (expectedVersion == null) {
+            return employeeService.patchEmployee(employeeId, changes)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        }
+        return employeeService.patchEmployee(employeeId, expectedVersion, changes)
+                ? ResponseEntity.noContent().eTag(String.valueOf(expectedVersion + 1)).build()
+                : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
-        employeeService.deleteEmployee(employeeId);
+        if (!employeeService.deleteEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<>("Employee deleted successfully!.", HttpStatus.OK);
     }
+
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<String> deleteEmployees(@RequestParam("ids") List<Long> employeeIds) {
+        int deleted = employeeService.deleteEmployees(employeeIds);
+        return new ResponseEntity<>(deleted + " employees deleted successfully!.", HttpStatus.OK);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        return new ResponseEntity<>("Employee was modified concurrently, reload it and retry.", HttpStatus.CONFLICT);
+    }
+
+    // with sharding on, an email that hashes to another shard would have to move the row and change its id
+    @ExceptionHandler(CrossShardUpdateException.class)
+    public ResponseEntity<String> handleCrossShardUpdate(CrossShardUpdateException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailed(PreconditionFailedException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * RFC 4180: fields containing a comma, quote or line break are quoted, with quotes doubled; null is empty.
+     */
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * @return the version named by a strong If-Match ETag, {@code null} when there is no precondition
+     * (header absent or "*"), or -1, which no row ever has, for weak, malformed or multiple tags
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through to the never-matching version
+            }
+        }
+        return -1L;
+    }
 }
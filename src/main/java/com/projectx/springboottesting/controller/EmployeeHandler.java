@@ -0,0 +1,199 @@
+package com.projectx.springboottesting.controller;
+
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.exception.ResourceNotFoundException;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.ReactiveEmployeeRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * WebFlux functional handlers for the {@code reactive} profile, serving the {@link EmployeeController} contract
+ * from {@link ReactiveEmployeeRepository}: same paths, status codes, ETags and If-Match semantics. Nothing here
+ * blocks, so a few event-loop threads serve every open connection.
+ */
+@Component
+@Profile("reactive")
+public class EmployeeHandler {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    public EmployeeHandler(ReactiveEmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    public Mono<ServerResponse> createEmployee(ServerRequest request) {
+        return request.bodyToMono(Employee.class)
+                .flatMap(employee -> employeeRepository.findByEmail(employee.getEmail())
+                        .flatMap(existing -> Mono.<Employee>error(alreadyExists(employee.getEmail())))
+                        .switchIfEmpty(Mono.defer(() -> employeeRepository.save(employee)))
+                        .onErrorMap(DataIntegrityViolationException.class, e -> alreadyExists(employee.getEmail())))
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED).bodyValue(saved));
+    }
+
+    public Mono<ServerResponse> getAllEmployees(ServerRequest request) {
+        return employeeRepository.collectionVersion()
+                .flatMap(version -> request.checkNotModified(version.etag())
+                        .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(version.etag())
+                                .body(employeeRepository.findAll(), Employee.class))));
+    }
+
+    public Mono<ServerResponse> streamAllEmployees(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(employeeRepository.findAll(), Employee.class);
+    }
+
+    public Mono<ServerResponse> getEmployeePage(ServerRequest request) {
+        int limit;
+        long afterId;
+        try {
+            limit = Integer.parseInt(request.queryParam("limit").orElseThrow());
+            afterId = request.queryParam("after").map(EmployeePage::decodeCursor).orElse(0L);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ServerResponse.badRequest().build();
+        }
+        return employeeRepository.collectionVersion()
+                .flatMap(version -> request.checkNotModified(version.etag())
+                        .switchIfEmpty(Mono.defer(() -> employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit + 1)
+                                .collectList()
+                                .flatMap(employees -> ServerResponse.ok().eTag(version.etag())
+                                        .bodyValue(page(employees, limit))))));
+    }
+
+    public Mono<ServerResponse> getEmployeeById(ServerRequest request) {
+        long id = Long.parseLong(request.pathVariable("id"));
+        // a conditional GET only needs the version column, not the row or its JSON
+        if (request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            return employeeRepository.findVersionById(id)
+                    .flatMap(version -> request.checkNotModified(String.valueOf(version))
+                            .switchIfEmpty(Mono.defer(() -> okWithBody(id))))
+                    .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+        }
+        return okWithBody(id);
+    }
+
+    /**
+     * Like the servlet PUT: a concurrent update between the read and the write fails with 409 instead of being
+     * overwritten, and with If-Match the client's own version must still be current.
+     */
+    public Mono<ServerResponse> updateEmployee(ServerRequest request) {
+        long id = Long.parseLong(request.pathVariable("id"));
+        Long expectedVersion = expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(Employee.class)
+                .flatMap(changes -> employeeRepository.findById(id)
+                        .flatMap(current -> {
+                            if (expectedVersion != null && expectedVersion != current.getVersion()) {
+                                return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).build();
+                            }
+                            return employeeRepository.updateEmployeeIfVersion(id, current.getVersion(), changes)
+                                    .onErrorMap(DataIntegrityViolationException.class, e -> alreadyExists(changes.getEmail()))
+                                    .flatMap(updated -> updated == 0
+                                            ? ServerResponse.status(HttpStatus.CONFLICT)
+                                            .bodyValue("Employee was modified concurrently, reload it and retry.")
+                                            : ServerResponse.ok().eTag(String.valueOf(current.getVersion() + 1))
+                                            .bodyValue(current.toBuilder()
+                                                    .firstName(changes.getFirstName())
+                                                    .lastName(changes.getLastName())
+                                                    .email(changes.getEmail())
+                                                    .version(current.getVersion() + 1)
+                                                    .build()));
+                        })
+                        .switchIfEmpty(ServerResponse.notFound().build()));
+    }
+
+    public Mono<ServerResponse> patchEmployee(ServerRequest request) {
+        long id = Long.parseLong(request.pathVariable("id"));
+        Long expectedVersion = expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(Employee.class).flatMap(changes -> {
+            if (expectedVersion == null) {
+                return employeeRepository.patchEmployee(id, changes)
+                        .onErrorMap(DataIntegrityViolationException.class, e -> alreadyExists(changes.getEmail()))
+                        .flatMap(updated -> updated > 0
+                                ? ServerResponse.noContent().build()
+                                : ServerResponse.notFound().build());
+            }
+            return employeeRepository.patchEmployeeIfVersion(id, expectedVersion, changes)
+                    .onErrorMap(DataIntegrityViolationException.class, e -> alreadyExists(changes.getEmail()))
+                    .flatMap(updated -> {
+                        if (updated > 0) {
+                            return ServerResponse.noContent().eTag(String.valueOf(expectedVersion + 1)).build();
+                        }
+                        // tell a missing employee apart from one that moved past the expected version
+                        return employeeRepository.findVersionById(id)
+                                .flatMap(version -> ServerResponse.status(HttpStatus.PRECONDITION_FAILED)
+                                        .bodyValue("Employee " + id + " is no longer at version " + expectedVersion))
+                                .switchIfEmpty(ServerResponse.notFound().build());
+                    });
+        });
+    }
+
+    public Mono<ServerResponse> deleteEmployee(ServerRequest request) {
+        long id = Long.parseLong(request.pathVariable("id"));
+        return employeeRepository.deleteEmployeeById(id)
+                .flatMap(deleted -> deleted > 0
+                        ? ServerResponse.ok().bodyValue("Employee deleted successfully!.")
+                        : ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> deleteEmployees(ServerRequest request) {
+        List<Long> ids = request.queryParams().get("ids").stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .map(Long::valueOf)
+                .toList();
+        return employeeRepository.deleteEmployeesByIds(ids)
+                .flatMap(deleted -> ServerResponse.ok().bodyValue(deleted + " employees deleted successfully!."));
+    }
+
+    private Mono<ServerResponse> okWithBody(long id) {
+        return employeeRepository.findById(id)
+                .flatMap(employee -> ServerResponse.ok().eTag(String.valueOf(employee.getVersion())).bodyValue(employee))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    // fetched one extra row so the last page does not hand out a cursor to an empty page
+    private static EmployeePage page(List<Employee> employees, int limit) {
+        if (employees.size() <= limit) {
+            return new EmployeePage(employees, null);
+        }
+        List<Employee> page = employees.subList(0, limit);
+        return new EmployeePage(page, EmployeePage.encodeCursor(page.get(limit - 1).getId()));
+    }
+
+    private static ResourceNotFoundException alreadyExists(String email) {
+        return new ResourceNotFoundException("Employee already exist with given email: " + email);
+    }
+
+    /**
+     * Same rules as {@code EmployeeController}: {@code null} without a precondition, -1 (never matches) for
+     * weak, malformed or multiple tags.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through to the never-matching version
+            }
+        }
+        return -1L;
+    }
+}
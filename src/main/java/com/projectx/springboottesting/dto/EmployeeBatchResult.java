@@ -0,0 +1,18 @@
+package com.projectx.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create request, with one entry per submitted employee in submission order.
+ */
+public record EmployeeBatchResult(int created, int rejected, List<Item> items) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    public record Item(int index, Status status, Long id, String email, String message) {
+    }
+}
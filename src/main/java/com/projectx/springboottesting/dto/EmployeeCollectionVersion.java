@@ -0,0 +1,12 @@
+package com.projectx.springboottesting.dto;
+
+/**
+ * Committed changes to the employee table so far, counted by triggers into {@code employee_change}; used as the
+ * ETag of collection responses.
+ */
+public record EmployeeCollectionVersion(long changes) {
+
+    public String etag() {
+        return Long.toString(changes);
+    }
+}
@@ -0,0 +1,29 @@
+package com.projectx.springboottesting.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the NDJSON report streamed back while an import runs: a rejected input line, the running
+ * totals after each committed chunk, or the final totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeImportEvent(Type type, Long line, String message, Long rows, Long created, Long rejected) {
+
+    public enum Type {
+        REJECTED,
+        PROGRESS,
+        COMPLETED
+    }
+
+    public static EmployeeImportEvent rejected(long line, String message) {
+        return new EmployeeImportEvent(Type.REJECTED, line, message, null, null, null);
+    }
+
+    public static EmployeeImportEvent progress(long rows, long created, long rejected) {
+        return new EmployeeImportEvent(Type.PROGRESS, null, null, rows, created, rejected);
+    }
+
+    public static EmployeeImportEvent completed(long rows, long created, long rejected) {
+        return new EmployeeImportEvent(Type.COMPLETED, null, null, rows, created, rejected);
+    }
+}
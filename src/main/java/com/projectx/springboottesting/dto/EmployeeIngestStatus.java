@@ -0,0 +1,25 @@
+package com.projectx.springboottesting.dto;
+
+/**
+ * Progress of an employee accepted by the write-behind queue, looked up by its tracking id.
+ */
+public record EmployeeIngestStatus(String trackingId, State state, Long employeeId, String message) {
+
+    public enum State {
+        QUEUED,
+        CREATED,
+        REJECTED
+    }
+
+    public static EmployeeIngestStatus queued(String trackingId) {
+        return new EmployeeIngestStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static EmployeeIngestStatus created(String trackingId, long employeeId) {
+        return new EmployeeIngestStatus(trackingId, State.CREATED, employeeId, null);
+    }
+
+    public static EmployeeIngestStatus rejected(String trackingId, String message) {
+        return new EmployeeIngestStatus(trackingId, State.REJECTED, null, message);
+    }
+}
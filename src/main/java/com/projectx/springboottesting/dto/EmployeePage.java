@@ -0,0 +1,31 @@
+package com.projectx.springboottesting.dto;
+
+import com.projectx.springboottesting.model.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated employee listing.
+ * {@code next} is an opaque cursor for the following page, or {@code null} on the last page.
+ */
+public record EmployeePage(List<Employee> items, String next) {
+
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encodeCursor(long)}
+     */
+    public static long decodeCursor(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        long lastId = Long.parseLong(decoded);
+        if (lastId < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,9 @@
+package com.projectx.springboottesting.dto;
+
+/**
+ * Timings of one normalized SQL statement since startup or the last reset. Percentiles are accurate to two
+ * significant digits.
+ */
+public record SqlStatementReport(String sql, long count, long errors, double totalMillis, double meanMillis,
+                                 double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+}
@@ -0,0 +1,8 @@
+package com.projectx.springboottesting.exception;
+
+public class CrossShardUpdateException extends RuntimeException {
+
+    public CrossShardUpdateException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,31 @@
 package com.projectx.springboottesting.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
+@Table(indexes = @Index(name = "uk_employee_email", columnList = "email", unique = true))
+// second-level cache; READ_WRITE soft-locks an entry while a transaction changes it, so no reader sees a stale row
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
 public class Employee {
 
+    public static final String CACHE_REGION = "employee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -24,6 +36,10 @@ public class Employee {
 
     private String email;
 
+    // bumped on every update; doubles as the strong ETag of the employee resource
+    @Version
+    private long version;
+
     @Override
     public String toString() {
         return "Employee{" +
@@ -31,6 +47,7 @@ public class Employee {
                 ", firstName='" + firstName + '\'' +
                 ", lastName='" + lastName + '\'' +
                 ", email='" + email + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,28 @@
+package com.projectx.springboottesting.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Single-statement writes of {@link EmployeeRepository} that do not load the rows first. They run as plain SQL, which
+ * Hibernate does not see, so instead of evicting the whole Employee cache region as a bulk JPQL statement would,
+ * {@link EmployeeBulkWritesImpl} evicts only the rows written, and the cached queries, once the transaction commits.
+ */
+public interface EmployeeBulkWrites {
+
+    // a null argument leaves its column unchanged
+    @Transactional
+    int patchEmployee(long id, String firstName, String lastName, String email);
+
+    // PATCH with If-Match: only applies while the row is still at the version the client saw
+    @Transactional
+    int patchEmployeeIfVersion(long id, long version, String firstName, String lastName, String email);
+
+    // deleteById would load the entity first and then remove it
+    @Transactional
+    int deleteEmployeeById(long id);
+
+    @Transactional
+    int deleteEmployeesByIds(Collection<Long> ids);
+}
@@ -0,0 +1,83 @@
+package com.projectx.springboottesting.repository;
+
+import com.projectx.springboottesting.model.Employee;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link EmployeeBulkWrites}, picked up by Spring Data as a fragment of {@link EmployeeRepository}.
+ */
+public class EmployeeBulkWritesImpl implements EmployeeBulkWrites {
+
+    private static final String PATCH_SQL = "update employee set first_name = coalesce(?, first_name), " +
+            "last_name = coalesce(?, last_name), email = coalesce(?, email), version = version + 1 where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EmployeeBulkWritesImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public int patchEmployee(long id, String firstName, String lastName, String email) {
+        return evictedAfterCommit(List.of(id), jdbcTemplate.update(PATCH_SQL, firstName, lastName, email, id));
+    }
+
+    @Override
+    public int patchEmployeeIfVersion(long id, long version, String firstName, String lastName, String email) {
+        return evictedAfterCommit(List.of(id),
+                jdbcTemplate.update(PATCH_SQL + " and version = ?", firstName, lastName, email, id, version));
+    }
+
+    @Override
+    public int deleteEmployeeById(long id) {
+        return evictedAfterCommit(List.of(id), jdbcTemplate.update("delete from employee where id = ?", id));
+    }
+
+    @Override
+    public int deleteEmployeesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return evictedAfterCommit(ids,
+                namedParameterJdbcTemplate.update("delete from employee where id in (:ids)", Map.of("ids", ids)));
+    }
+
+    // Drops the written rows from the entity region and every cached query result, but only after the commit:
+    // evicted any earlier, a concurrent reader could put the old row straight back
+    private int evictedAfterCommit(Collection<Long> ids, int rows) {
+        if (rows == 0) {
+            return 0;
+        }
+        List<Long> written = List.copyOf(ids);
+        Runnable evict = () -> {
+            org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+            written.forEach(id -> cache.evictEntityData(Employee.class, id));
+            cache.evictQueryRegions();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return rows;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+        return rows;
+    }
+}
@@ -0,0 +1,149 @@
+package com.projectx.springboottesting.repository;
+
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.model.Employee;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Plain JDBC access for bulk operations that Hibernate cannot batch.
+ * {@code Employee.id} is an IDENTITY column, which forces Hibernate to flush every insert on its own.
+ */
+@Repository
+@Profile("!reactive")
+@Timed("employee.jdbc")
+public class EmployeeJdbcRepository {
+
+    private static final String INSERT_SQL = "insert into employee (first_name, last_name, email, version) values (?, ?, ?, 0)";
+
+    private static final String SELECT_ALL_SQL = "select id, first_name, last_name, email, version from employee order by id";
+
+    private static final RowMapper<Employee> EMPLOYEE_ROW_MAPPER = (rs, rowNum) -> Employee.builder()
+            .id(rs.getLong("id"))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .email(rs.getString("email"))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private final int batchSize;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @param streamFetchSize fetch size for the forward-only streaming queries; the default Integer.MIN_VALUE makes
+     *                        MySQL Connector/J stream rows one at a time, other drivers need a positive value
+     */
+    public EmployeeJdbcRepository(JdbcTemplate jdbcTemplate, @Value("${employee.batch.size:500}") int batchSize,
+                                  @Value("${employee.jdbc.stream-fetch-size:" + Integer.MIN_VALUE + "}") int streamFetchSize,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = Math.max(1, batchSize);
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+    }
+
+    /**
+     * Inserts the employees in JDBC batches of {@code employee.batch.size} rows within one transaction
+     * and writes the generated ids, and the version every new row starts at, back onto the given objects.
+     * <p>
+     * The ids are read back by email rather than taken from the batch's generated keys: for a rewritten multi-row
+     * INSERT, MySQL Connector/J derives every key after the first from the {@code auto_increment_increment} it read
+     * when it connected, which misses the per-session interleaving the sharding sets up afterwards.
+     */
+    @Transactional
+    public void insertAll(List<Employee> employees) {
+        for (int from = 0; from < employees.size(); from += batchSize) {
+            List<Employee> chunk = employees.subList(from, Math.min(from + batchSize, employees.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Employee employee = chunk.get(i);
+                    ps.setString(1, employee.getFirstName());
+                    ps.setString(2, employee.getLastName());
+                    ps.setString(3, employee.getEmail());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            });
+            // emails are unique; compared case-insensitively, like the default MySQL collation does
+            Map<String, Long> ids = new HashMap<>();
+            namedParameterJdbcTemplate.query("select id, email from employee where email in (:emails)",
+                    Map.of("emails", chunk.stream().map(Employee::getEmail).toList()),
+                    (RowCallbackHandler) rs -> ids.put(rs.getString("email").toLowerCase(Locale.ROOT), rs.getLong("id")));
+            for (Employee employee : chunk) {
+                employee.setId(ids.get(employee.getEmail().toLowerCase(Locale.ROOT)));
+                // whatever version the request carried, the row is at 0
+                employee.setVersion(0);
+            }
+        }
+        evictCachedQueriesAfterCommit();
+    }
+
+    // Hibernate does not see these inserts, so a cached "no employee with this email" would outlive them.
+    // New rows cannot be in the entity region yet; only query results need to go, once the rows are visible.
+    private void evictCachedQueriesAfterCommit() {
+        Runnable evict = () -> entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    /**
+     * Changes to the table so far, as counted by the triggers of the V2 migration: every insert, update and delete
+     * bumps it in the same transaction, and reading it sums 16 counter rows instead of aggregating over employee.
+     */
+    public EmployeeCollectionVersion collectionVersion() {
+        return jdbcTemplate.queryForObject("select coalesce(sum(changes), 0) from employee_change",
+                (rs, rowNum) -> new EmployeeCollectionVersion(rs.getLong(1)));
+    }
+
+    /**
+     * Streams every employee in id order over a forward-only cursor. The rows are plain objects, not managed
+     * entities, so nothing accumulates in a persistence context. The stream holds a connection until closed.
+     */
+    public Stream<Employee> streamAll() {
+        return streamingJdbcTemplate.queryForStream(SELECT_ALL_SQL, EMPLOYEE_ROW_MAPPER);
+    }
+
+    public Stream<String> streamAllEmails() {
+        return streamingJdbcTemplate.queryForStream("select email from employee", (rs, rowNum) -> rs.getString(1));
+    }
+}
@@ -1,25 +1,63 @@
 package com.projectx.springboottesting.repository;
 
 import com.projectx.springboottesting.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeBulkWrites {
 
+    // finders are read-only transactions, which the replica routing sends to a replica when it is enabled.
+    // The query cache keeps the matching ids, empty results included, until the employee table is next written.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByEmail(String email);
 
+    // one round trip to find which of the given emails are already taken
+    @Transactional(readOnly = true)
+    @Query("select e.email from Employee e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     // define custom query using JPQL with index parameters
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByFirstNameAndLastName(String firstName, String lastName);
 
     // define custom query using JPQL with named parameters
+    @Transactional(readOnly = true)
     @Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
     Employee findByFirstNameAndLastNameNNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
     // define custom query using native SQL with index parameters
+    @Transactional(readOnly = true)
     @Query(value = "select * from employee e where e.first_name =?1 and e.last_name = ?2", nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
+
+    // findById for results that are kept: skips the second-level cache, which a lagging replica's rows may have
+    // reached through other finders, and refreshes it with the row read instead
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"),
+            @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "REFRESH")})
+    @Query("select e from Employee e where e.id = :id")
+    Optional<Employee> findFreshById(@Param("id") long id);
+
+    // answers If-None-Match without hydrating the entity
+    @Transactional(readOnly = true)
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    // keyset pagination: seek past the last id of the previous page instead of using OFFSET
+    @Transactional(readOnly = true)
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
 }
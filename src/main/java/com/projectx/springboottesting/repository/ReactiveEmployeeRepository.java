@@ -0,0 +1,169 @@
+package com.projectx.springboottesting.repository;
+
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.model.Employee;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeRepository} for the {@code reactive} profile, on R2DBC.
+ * <p>
+ * A plain class over {@link DatabaseClient} rather than a Spring Data interface: Spring Data JPA claims every
+ * repository of an {@code @Entity} and refuses reactive ones. R2DBC has no JPQL and no persistence context, so
+ * every query is SQL and every write is one statement; the version checks Hibernate does for {@code @Version}
+ * are spelled out in the update statements.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, version";
+
+    private static final String PATCH_COLUMNS = "first_name = coalesce(:firstName, first_name), " +
+            "last_name = coalesce(:lastName, last_name), email = coalesce(:email, email), version = version + 1";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserts a new employee at version 0 and returns it with its generated id.
+     */
+    public Mono<Employee> save(Employee employee) {
+        return bindNames(databaseClient.sql("insert into employee (first_name, last_name, email, version) " +
+                        "values (:firstName, :lastName, :email, 0)"), employee)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> employee.toBuilder().id(id).version(0).build());
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::employee)
+                .one();
+    }
+
+    public Mono<Employee> findByEmail(String email) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::employee)
+                .one();
+    }
+
+    public Mono<Employee> findByFirstNameAndLastName(String firstName, String lastName) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where first_name = :firstName and last_name = :lastName")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .map(ReactiveEmployeeRepository::employee)
+                .first();
+    }
+
+    // answers If-None-Match without reading the whole row
+    public Mono<Long> findVersionById(long id) {
+        return databaseClient.sql("select version from employee where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    // same counter as EmployeeJdbcRepository.collectionVersion()
+    public Mono<EmployeeCollectionVersion> collectionVersion() {
+        return databaseClient.sql("select coalesce(sum(changes), 0) from employee_change")
+                .map(row -> new EmployeeCollectionVersion(number(row, 0)))
+                .one();
+    }
+
+    /**
+     * Emits rows as the driver decodes them; demand from the subscriber is what pulls more from the database.
+     */
+    public Flux<Employee> findAll() {
+        return databaseClient.sql("select " + COLUMNS + " from employee order by id")
+                .map(ReactiveEmployeeRepository::employee)
+                .all();
+    }
+
+    // keyset pagination: seek past the last id of the previous page instead of using OFFSET
+    public Flux<Employee> findByIdGreaterThanOrderByIdAsc(long afterId, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where id > :afterId order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::employee)
+                .all();
+    }
+
+    // PUT: only applies while the row is still at the version that was read
+    public Mono<Long> updateEmployeeIfVersion(long id, long version, Employee employee) {
+        return bindNames(databaseClient.sql("update employee set first_name = :firstName, last_name = :lastName, " +
+                        "email = :email, version = version + 1 where id = :id and version = :version"), employee)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // a null argument leaves its column unchanged
+    public Mono<Long> patchEmployee(long id, Employee changes) {
+        return bindNames(databaseClient.sql("update employee set " + PATCH_COLUMNS + " where id = :id"), changes)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // PATCH with If-Match: only applies while the row is still at the version the client saw
+    public Mono<Long> patchEmployeeIfVersion(long id, long version, Employee changes) {
+        return bindNames(databaseClient.sql("update employee set " + PATCH_COLUMNS + " where id = :id and version = :version"), changes)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteEmployeeById(long id) {
+        return databaseClient.sql("delete from employee where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteEmployeesByIds(Collection<Long> ids) {
+        return databaseClient.sql("delete from employee where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // R2DBC needs the type of a null bind value
+    private static DatabaseClient.GenericExecuteSpec bindNames(DatabaseClient.GenericExecuteSpec spec, Employee employee) {
+        spec = bindNullable(spec, "firstName", employee.getFirstName());
+        spec = bindNullable(spec, "lastName", employee.getLastName());
+        return bindNullable(spec, "email", employee.getEmail());
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    private static Employee employee(Readable row) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private static long number(Readable row, int index) {
+        return row.get(index, Number.class).longValue();
+    }
+}
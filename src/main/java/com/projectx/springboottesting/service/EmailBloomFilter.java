@@ -0,0 +1,110 @@
+package com.projectx.springboottesting.service;
+
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every email that has been stored, used to skip the {@code findByEmail} pre-check for
+ * emails that are certainly new. A negative answer is exact; a positive one only means "maybe taken".
+ * <p>
+ * The filter is loaded from the table once the application is ready and answers "maybe" for everything
+ * until then. Deleted or changed emails keep their bits set, which only costs an extra pre-check.
+ */
+@Component
+@Profile("!reactive")
+public class EmailBloomFilter {
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private volatile boolean ready;
+
+    public EmailBloomFilter(EmployeeJdbcRepository employeeJdbcRepository,
+                            @Value("${employee.email-filter.expected-insertions:10000000}") long expectedInsertions,
+                            @Value("${employee.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        long optimalBits = (long) (-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try (Stream<String> emails = employeeJdbcRepository.streamAllEmails()) {
+            load(emails);
+        }
+    }
+
+    void load(Stream<String> emails) {
+        // writes racing with the load set their bits in the same array, so nothing is lost
+        emails.forEach(this::put);
+        ready = true;
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+        long hash1 = hash(email);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash1 = hash(email);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    // emails compare case-insensitively, like the default MySQL collation on the unique index
+    private static long hash(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,417 @@
+package com.projectx.springboottesting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeImportEvent;
+import com.projectx.springboottesting.exception.ResourceNotFoundException;
+import com.projectx.springboottesting.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of employees from a CSV or NDJSON stream of any size, behind {@code POST /api/employees/import}.
+ * <p>
+ * Rows are parsed one at a time and written in chunks of {@code employee.import.chunk-size} through
+ * {@link EmployeeService#saveEmployees}, one transaction per chunk, which also dedupes the chunk's emails against
+ * the table and against earlier chunks. Only the current chunk is held in memory, and nothing more is read until
+ * it is committed, so a slow database slows down the upload instead of filling the heap. Records longer than
+ * {@code employee.import.max-line-length} characters are rejected without being buffered.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImporter.class);
+
+    // the default varchar(255) of the employee columns
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final EmployeeService employeeService;
+
+    private final ObjectReader jsonReader;
+
+    private final int chunkSize;
+
+    private final int maxLineLength;
+
+    public EmployeeImporter(EmployeeService employeeService, ObjectMapper objectMapper,
+                            @Value("${employee.import.chunk-size:1000}") int chunkSize,
+                            @Value("${employee.import.max-line-length:65536}") int maxLineLength) {
+        this.employeeService = employeeService;
+        this.jsonReader = objectMapper.readerFor(JsonNode.class);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxLineLength = Math.max(1, maxLineLength);
+    }
+
+    /**
+     * Imports every row of {@code body}, reporting rejected lines and the totals after each chunk to
+     * {@code events} as they happen.
+     *
+     * @return the final totals, also the last event reported
+     */
+    public EmployeeImportEvent importEmployees(InputStream body, Format format, Charset charset,
+                                               Consumer<EmployeeImportEvent> events) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(body, charset), 64 * 1024);
+        Rows rows = format == Format.CSV ? new CsvRows(reader, maxLineLength) : new NdjsonRows(reader, maxLineLength, jsonReader);
+        Progress progress = new Progress(events);
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        Row row;
+        while ((row = rows.next()) != null) {
+            progress.rows++;
+            String error = row.error() != null ? row.error() : validate(row.employee());
+            if (error != null) {
+                progress.reject(row.line(), error);
+                continue;
+            }
+            chunk.add(row.employee());
+            chunkLines.add(row.line());
+            if (chunk.size() == chunkSize) {
+                write(chunk, chunkLines, progress);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, chunkLines, progress);
+        }
+        EmployeeImportEvent completed = EmployeeImportEvent.completed(progress.rows, progress.created, progress.rejected);
+        events.accept(completed);
+        return completed;
+    }
+
+    private void write(List<Employee> chunk, List<Long> chunkLines, Progress progress) {
+        try {
+            EmployeeBatchResult result = employeeService.saveEmployees(chunk);
+            for (EmployeeBatchResult.Item item : result.items()) {
+                if (item.status() == EmployeeBatchResult.Status.CREATED) {
+                    progress.created++;
+                } else {
+                    progress.reject(chunkLines.get(item.index()), item.message());
+                }
+            }
+        } catch (ResourceNotFoundException e) {
+            // an email was taken concurrently and the chunk was rolled back; retry one by one
+            // so that only the offending rows are rejected
+            log.warn("Import chunk of {} failed, retrying one by one: {}", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    employeeService.saveEmployee(chunk.get(i));
+                    progress.created++;
+                } catch (ResourceNotFoundException ex) {
+                    progress.reject(chunkLines.get(i), ex.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+        progress.report();
+    }
+
+    private static String validate(Employee employee) {
+        if (employee.getEmail() == null || employee.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (!EMAIL.matcher(employee.getEmail()).matches()) {
+            return "Invalid email: " + employee.getEmail();
+        }
+        for (String value : new String[]{employee.getFirstName(), employee.getLastName(), employee.getEmail()}) {
+            if (value != null && value.length() > MAX_FIELD_LENGTH) {
+                return "Values are limited to " + MAX_FIELD_LENGTH + " characters";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ids and versions in the input are ignored: imported rows are always new employees.
+     */
+    private static Employee employee(String firstName, String lastName, String email) {
+        return Employee.builder()
+                .firstName(blankToNull(firstName))
+                .lastName(blankToNull(lastName))
+                .email(email == null ? null : email.trim())
+                .build();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class Progress {
+
+        private final Consumer<EmployeeImportEvent> events;
+
+        private long rows;
+
+        private long created;
+
+        private long rejected;
+
+        private Progress(Consumer<EmployeeImportEvent> events) {
+            this.events = events;
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            events.accept(EmployeeImportEvent.rejected(line, message));
+        }
+
+        private void report() {
+            events.accept(EmployeeImportEvent.progress(rows, created, rejected));
+        }
+    }
+
+    /**
+     * A parsed record, or the reason it could not be parsed; {@code line} is where the record starts.
+     */
+    private record Row(long line, Employee employee, String error) {
+    }
+
+    private interface Rows {
+
+        /**
+         * @return the next record, or {@code null} at the end of the input
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * RFC 4180 records: comma separated, fields optionally quoted, quotes inside quoted fields doubled,
+     * line breaks allowed inside quoted fields. The header row names the columns, in any order:
+     * firstName/first_name, lastName/last_name and email.
+     */
+    private static final class CsvRows implements Rows {
+
+        private final PushbackReader reader;
+
+        private final int maxLineLength;
+
+        private final List<String> fields = new ArrayList<>();
+
+        private final StringBuilder field = new StringBuilder();
+
+        private long line = 1;
+
+        private int firstNameColumn = -1;
+
+        private int lastNameColumn = -1;
+
+        private int emailColumn = -1;
+
+        private boolean headerRead;
+
+        private boolean finished;
+
+        private CsvRows(Reader reader, int maxLineLength) {
+            this.reader = new PushbackReader(reader);
+            this.maxLineLength = maxLineLength;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (!finished) {
+                long start = line;
+                String error = readRecord();
+                if (error == null && fields.isEmpty()) {
+                    return null;
+                }
+                if (error == null && fields.size() == 1 && fields.get(0).isEmpty()) {
+                    continue;
+                }
+                if (!headerRead) {
+                    headerRead = true;
+                    String headerError = error != null ? error : readHeader();
+                    if (headerError != null) {
+                        // without a usable header no row can be mapped; report it and stop
+                        finished = true;
+                        return new Row(start, null, headerError);
+                    }
+                    continue;
+                }
+                if (error != null) {
+                    return new Row(start, null, error);
+                }
+                if (emailColumn >= fields.size()) {
+                    return new Row(start, null, "Expected " + (emailColumn + 1) + " columns, found " + fields.size());
+                }
+                return new Row(start, employee(column(firstNameColumn), column(lastNameColumn), column(emailColumn)), null);
+            }
+            return null;
+        }
+
+        private String column(int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+
+        private String readHeader() {
+            for (int i = 0; i < fields.size(); i++) {
+                switch (fields.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT)) {
+                    case "firstname" -> firstNameColumn = i;
+                    case "lastname" -> lastNameColumn = i;
+                    case "email" -> emailColumn = i;
+                    default -> {
+                    }
+                }
+            }
+            if (emailColumn < 0) {
+                return "The header row must name an email column";
+            }
+            return null;
+        }
+
+        /**
+         * Reads one record into {@link #fields}; no fields means the input is exhausted.
+         *
+         * @return why the record is unusable, or {@code null}
+         */
+        private String readRecord() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean any = false;
+            int length = 0;
+            String error = null;
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    if (!any) {
+                        return null;
+                    }
+                    if (quoted && error == null) {
+                        error = "Unterminated quoted field";
+                    }
+                    break;
+                }
+                any = true;
+                if (++length > maxLineLength && error == null) {
+                    // keep consuming the record so the next one starts in the right place, but stop buffering it
+                    error = "Record is longer than " + maxLineLength + " characters";
+                    field.setLength(0);
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            append('"', error);
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.unread(next);
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        append((char) c, error);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    append((char) c, error);
+                }
+            }
+            fields.add(field.toString());
+            return error;
+        }
+
+        private void append(char c, String error) {
+            if (error == null) {
+                field.append(c);
+            }
+        }
+    }
+
+    /**
+     * One JSON object per line with firstName, lastName and email properties; blank lines are skipped.
+     */
+    private static final class NdjsonRows implements Rows {
+
+        private final Reader reader;
+
+        private final int maxLineLength;
+
+        private final ObjectReader jsonReader;
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        private long line;
+
+        private NdjsonRows(Reader reader, int maxLineLength, ObjectReader jsonReader) {
+            this.reader = reader;
+            this.maxLineLength = maxLineLength;
+            this.jsonReader = jsonReader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                buffer.setLength(0);
+                boolean tooLong = false;
+                int c;
+                while ((c = reader.read()) != -1 && c != '\n') {
+                    if (buffer.length() < maxLineLength) {
+                        buffer.append((char) c);
+                    } else {
+                        tooLong = true;
+                    }
+                }
+                if (c == -1 && buffer.isEmpty() && !tooLong) {
+                    return null;
+                }
+                line++;
+                if (tooLong) {
+                    return new Row(line, null, "Line is longer than " + maxLineLength + " characters");
+                }
+                if (buffer.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = jsonReader.readValue(buffer.toString());
+                    if (!node.isObject()) {
+                        return new Row(line, null, "Expected a JSON object");
+                    }
+                    return new Row(line, employee(text(node, "firstName"), text(node, "lastName"), text(node, "email")), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+
+        private static String text(JsonNode node, String name) {
+            JsonNode value = node.get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
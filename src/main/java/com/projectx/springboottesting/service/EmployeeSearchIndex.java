@@ -0,0 +1,389 @@
+package com.projectx.springboottesting.service;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory type-ahead index over first name, last name and email behind {@code GET /api/employees/search}.
+ * <p>
+ * Prefix matches are range scans over skip lists keyed by the lowercased name tokens and emails. When they
+ * find too few employees, a trigram index over the distinct name tokens adds fuzzy matches, so "jhon" still
+ * finds "john". Emails are only prefix-searchable: a trigram per email character would dominate the heap.
+ * Results rank exact token matches first, then prefixes (closer lengths first), then fuzzy matches by
+ * trigram similarity.
+ * <p>
+ * Reads are lock-free; writes are serialized, they are rare next to type-ahead reads. The index is loaded
+ * once the application is ready and the service keeps it current on every write. Writes may arrive out of order,
+ * so every entry keeps its version and an older row never replaces a newer one; a deleted id is remembered while a
+ * load runs and for a minute afterwards, so neither the load nor a late update brings it back.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeSearchIndex {
+
+    // bounds the work per query: prefix scans and fuzzy matches stop collecting ids here
+    private static final int MAX_CANDIDATES = 1000;
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private static final Pattern WORDS = Pattern.compile("\\s+");
+
+    private static final Pattern NAME_TOKENS = Pattern.compile("[\\s-]+");
+
+    private static final long TOMBSTONE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+
+    private final Map<Long, Entry> employees = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<String, Set<Long>> names = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentSkipListMap<String, Long> emails = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+
+    // guarded by writeLock: deleted ids with the time of the delete, oldest first; ids are never reused
+    private final LinkedHashMap<Long, Long> tombstones = new LinkedHashMap<>();
+
+    // guarded by writeLock
+    private int loading;
+
+    public EmployeeSearchIndex(EmployeeJdbcRepository employeeJdbcRepository) {
+        this.employeeJdbcRepository = employeeJdbcRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // from before the query starts: a row deleted after its snapshot was taken is still streamed
+        synchronized (writeLock) {
+            loading++;
+        }
+        try (Stream<Employee> all = employeeJdbcRepository.streamAll()) {
+            load(all);
+        } finally {
+            synchronized (writeLock) {
+                loading--;
+            }
+        }
+    }
+
+    void load(Stream<Employee> all) {
+        all.forEach(employee -> {
+            synchronized (writeLock) {
+                apply(employee);
+            }
+        });
+    }
+
+    public void put(Employee employee) {
+        Employee snapshot = employee.toBuilder().build();
+        synchronized (writeLock) {
+            apply(snapshot);
+        }
+    }
+
+    /**
+     * Applies the non-null fields of {@code changes}, mirroring the PATCH statement that moved the row to
+     * {@code version}. That only works on the entry at the version just before; a patch the entry is already past
+     * is ignored.
+     *
+     * @return false if the entry is missing or further behind, and the caller has to {@link #put} the row instead;
+     * true once the patch is applied, or needs no applying
+     */
+    public boolean patch(long id, long version, Employee changes) {
+        synchronized (writeLock) {
+            if (tombstones.containsKey(id)) {
+                return true;
+            }
+            Entry entry = employees.get(id);
+            if (entry == null) {
+                return false;
+            }
+            Employee previous = entry.employee();
+            if (previous.getVersion() >= version) {
+                return true;
+            }
+            if (previous.getVersion() != version - 1) {
+                return false;
+            }
+            removeTokens(entry);
+            add(previous.toBuilder()
+                    .firstName(changes.getFirstName() != null ? changes.getFirstName() : previous.getFirstName())
+                    .lastName(changes.getLastName() != null ? changes.getLastName() : previous.getLastName())
+                    .email(changes.getEmail() != null ? changes.getEmail() : previous.getEmail())
+                    .version(version)
+                    .build());
+            return true;
+        }
+    }
+
+    public void remove(long id) {
+        synchronized (writeLock) {
+            long now = System.nanoTime();
+            if (loading == 0) {
+                expireTombstones(now);
+            }
+            tombstones.putIfAbsent(id, now);
+            Entry previous = employees.remove(id);
+            if (previous != null) {
+                removeTokens(previous);
+            }
+        }
+    }
+
+    // under writeLock: a row from the load or a write replaces the entry unless it is older or was deleted
+    private void apply(Employee employee) {
+        if (tombstones.containsKey(employee.getId())) {
+            return;
+        }
+        Entry previous = employees.get(employee.getId());
+        if (previous != null) {
+            if (previous.employee().getVersion() > employee.getVersion()) {
+                return;
+            }
+            removeTokens(previous);
+        }
+        add(employee);
+    }
+
+    private void expireTombstones(long now) {
+        Iterator<Long> deletedAt = tombstones.values().iterator();
+        while (deletedAt.hasNext() && now - deletedAt.next() > TOMBSTONE_NANOS) {
+            deletedAt.remove();
+        }
+    }
+
+    /**
+     * @param query one or more words; every word must match a name or the email of a returned employee.
+     *              Candidates come from the longest word, the one most likely to be selective.
+     */
+    public List<Employee> search(String query, int limit) {
+        String[] words = WORDS.split(query.trim().toLowerCase(Locale.ROOT));
+        String lead = words[0];
+        for (String word : words) {
+            if (word.length() > lead.length()) {
+                lead = word;
+            }
+        }
+        if (lead.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> candidates = new LinkedHashSet<>();
+        collectPrefixMatches(lead, candidates);
+        if (candidates.size() < limit) {
+            collectFuzzyMatches(lead, candidates);
+        }
+        // candidates share few distinct tokens, so each word is matched against each token only once
+        List<Map<String, Double>> matches = new ArrayList<>(words.length);
+        for (int i = 0; i < words.length; i++) {
+            matches.add(new HashMap<>());
+        }
+        List<Scored> scored = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = employees.get(id);
+            if (entry == null) {
+                continue;
+            }
+            double score = score(entry, words, matches);
+            if (score > 0) {
+                scored.add(new Scored(entry.employee(), score));
+            }
+        }
+        return scored.stream()
+                .sorted(Comparator.comparingDouble(Scored::score).reversed()
+                        .thenComparingLong(s -> s.employee().getId()))
+                .limit(limit)
+                .map(s -> s.employee().toBuilder().build())
+                .toList();
+    }
+
+    private void collectPrefixMatches(String prefix, Set<Long> candidates) {
+        // lexicographic order puts the exact token first, then its shortest extensions
+        for (Set<Long> ids : prefixRange(names, prefix).values()) {
+            for (Long id : ids) {
+                if (candidates.add(id) && candidates.size() >= MAX_CANDIDATES) {
+                    return;
+                }
+            }
+        }
+        for (Long id : prefixRange(emails, prefix).values()) {
+            if (candidates.add(id) && candidates.size() >= MAX_CANDIDATES) {
+                return;
+            }
+        }
+    }
+
+    private void collectFuzzyMatches(String word, Set<Long> candidates) {
+        if (word.length() < 3) {
+            return;
+        }
+        Set<String> wordGrams = trigrams(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : wordGrams) {
+            for (String token : trigrams.getOrDefault(gram, Set.of())) {
+                shared.merge(token, 1, Integer::sum);
+            }
+        }
+        List<Map.Entry<String, Double>> similar = new ArrayList<>();
+        shared.forEach((token, common) -> {
+            double similarity = (double) common / (wordGrams.size() + trigrams(token).size() - common);
+            if (similarity >= MIN_SIMILARITY) {
+                similar.add(Map.entry(token, similarity));
+            }
+        });
+        similar.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        for (Map.Entry<String, Double> entry : similar) {
+            for (Long id : names.getOrDefault(entry.getKey(), Set.of())) {
+                if (candidates.add(id) && candidates.size() >= MAX_CANDIDATES) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sum over the query words of each word's best match; 0 if any word matches nothing.
+     */
+    private static double score(Entry entry, String[] words, List<Map<String, Double>> matches) {
+        double total = 0;
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            Map<String, Double> wordMatches = matches.get(i);
+            double best = entry.email() == null ? 0 : prefixMatch(word, entry.email());
+            for (String token : entry.nameTokens()) {
+                best = Math.max(best, wordMatches.computeIfAbsent(token, t -> match(word, t)));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static double match(String word, String token) {
+        double prefix = prefixMatch(word, token);
+        if (prefix > 0 || word.length() < 3) {
+            return prefix;
+        }
+        Set<String> wordGrams = trigrams(word);
+        Set<String> tokenGrams = trigrams(token);
+        int common = 0;
+        for (String gram : wordGrams) {
+            if (tokenGrams.contains(gram)) {
+                common++;
+            }
+        }
+        double similarity = (double) common / (wordGrams.size() + tokenGrams.size() - common);
+        return similarity >= MIN_SIMILARITY ? similarity : 0;
+    }
+
+    private static double prefixMatch(String word, String token) {
+        if (token.equals(word)) {
+            return 3;
+        }
+        return token.startsWith(word) ? 2 + (double) word.length() / token.length() : 0;
+    }
+
+    private void add(Employee employee) {
+        Set<String> nameTokens = nameTokens(employee);
+        String email = lower(employee.getEmail());
+        employees.put(employee.getId(), new Entry(employee, nameTokens.toArray(String[]::new), email));
+        for (String token : nameTokens) {
+            names.computeIfAbsent(token, key -> {
+                for (String gram : trigrams(key)) {
+                    trigrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(employee.getId());
+        }
+        if (email != null) {
+            emails.put(email, employee.getId());
+        }
+    }
+
+    private void removeTokens(Entry entry) {
+        Employee employee = entry.employee();
+        for (String token : nameTokens(employee)) {
+            Set<Long> ids = names.get(token);
+            if (ids != null && ids.remove(employee.getId()) && ids.isEmpty()) {
+                names.remove(token);
+                for (String gram : trigrams(token)) {
+                    Set<String> tokens = trigrams.get(gram);
+                    if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+        String email = lower(employee.getEmail());
+        if (email != null) {
+            emails.remove(email, employee.getId());
+        }
+    }
+
+    private static Set<String> nameTokens(Employee employee) {
+        Set<String> tokens = new HashSet<>();
+        for (String name : new String[]{employee.getFirstName(), employee.getLastName()}) {
+            if (name != null) {
+                for (String token : NAME_TOKENS.split(name.toLowerCase(Locale.ROOT))) {
+                    if (!token.isEmpty()) {
+                        tokens.add(token);
+                    }
+                }
+            }
+        }
+        return tokens;
+    }
+
+    // pg_trgm style: two leading blanks and one trailing blank, so word starts weigh more
+    private static Set<String> trigrams(String token) {
+        String padded = "  " + token + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(ConcurrentSkipListMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * An indexed employee with its lowercased name tokens and email, the strings queries are matched against.
+     */
+    private record Entry(Employee employee, String[] nameTokens, String email) {
+    }
+
+    private record Scored(Employee employee, double score) {
+    }
+}
@@ -1,18 +1,40 @@
 package com.projectx.springboottesting.service;
 
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.dto.EmployeePage;
 import com.projectx.springboottesting.model.Employee;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
 
+    EmployeeBatchResult saveEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    EmployeePage getEmployeePage(long afterId, int limit);
+
+    void streamAllEmployees(Consumer<Employee> consumer);
+
     Optional<Employee> getEmployeeById(long id);
 
+    List<Employee> searchEmployees(String query, int limit);
+
+    Optional<Long> getEmployeeVersion(long id);
+
+    EmployeeCollectionVersion getCollectionVersion();
+
     Employee updateEmployee(Employee employee);
 
-    void deleteEmployee(long id);
+    boolean patchEmployee(long id, Employee changes);
+
+    boolean patchEmployee(long id, long expectedVersion, Employee changes);
+
+    boolean deleteEmployee(long id);
+
+    int deleteEmployees(List<Long> ids);
 }
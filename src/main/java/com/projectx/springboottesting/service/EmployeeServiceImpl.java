@@ -1,46 +1,301 @@
 package com.projectx.springboottesting.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.projectx.springboottesting.config.ReplicaRoutingDataSource;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.exception.PreconditionFailedException;
 import com.projectx.springboottesting.exception.ResourceNotFoundException;
 import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
 import com.projectx.springboottesting.repository.EmployeeRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
+@Timed("employee.service")
 public class EmployeeServiceImpl implements EmployeeService{
 
+    // keeps each bulk DELETE's IN list and row locks bounded
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EmployeeJdbcRepository employeeJdbcRepository;
+
+    @Autowired
+    private Cache<Long, Employee> employeeCache;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+
+    // concurrent lookups of a hot id or email share one SELECT
+    private final SingleFlight<Long, Employee> idLookups = new SingleFlight<>();
+
+    private final SingleFlight<String, Optional<Employee>> emailLookups = new SingleFlight<>();
+
     @Override
     public Employee saveEmployee(Employee employee) { // method under test
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (savedEmployee.isPresent()) {
+        // emails the filter has never seen skip the pre-check; the unique index still catches concurrent inserts
+        if (emailFilter.mightContain(employee.getEmail())) {
+            Optional<Employee> savedEmployee = hasEmail(employee)
+                    ? emailLookups.load(emailKey(employee), email -> employeeRepository.findByEmail(employee.getEmail()))
+                    : employeeRepository.findByEmail(employee.getEmail());
+            if (savedEmployee.isPresent()) {
+                throw new ResourceNotFoundException("Employee already exist with given email: " + employee.getEmail());
+            }
+        }
+        Employee persistedEmployee;
+        try {
+            persistedEmployee = employeeRepository.save(employee);
+        } catch (DataIntegrityViolationException e) {
             throw new ResourceNotFoundException("Employee already exist with given email: " + employee.getEmail());
         }
-        return employeeRepository.save(employee);
+        emailFilter.put(employee.getEmail());
+        if (hasEmail(employee)) {
+            emailLookups.forget(emailKey(employee));
+        }
+        searchIndex.put(persistedEmployee);
+        return persistedEmployee;
     }
 
     @Override
+    public EmployeeBatchResult saveEmployees(List<Employee> employees) {
+        // only emails the filter cannot rule out need to be checked against the table
+        Set<String> requestedEmails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (hasEmail(employee) && emailFilter.mightContain(employee.getEmail())) {
+                requestedEmails.add(employee.getEmail());
+            }
+        }
+        // emails are compared case-insensitively, like the default MySQL collation does
+        Set<String> takenEmails = new HashSet<>();
+        if (!requestedEmails.isEmpty()) {
+            employeeRepository.findExistingEmails(requestedEmails)
+                    .forEach(email -> takenEmails.add(email.toLowerCase(Locale.ROOT)));
+        }
+
+        EmployeeBatchResult.Item[] items = new EmployeeBatchResult.Item[employees.size()];
+        List<Employee> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (!hasEmail(employee)) {
+                items[i] = new EmployeeBatchResult.Item(i, EmployeeBatchResult.Status.INVALID, null,
+                        employee.getEmail(), "Email is required");
+            } else if (!takenEmails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                items[i] = new EmployeeBatchResult.Item(i, EmployeeBatchResult.Status.DUPLICATE, null,
+                        employee.getEmail(), "Employee already exist with given email: " + employee.getEmail());
+            } else {
+                toInsert.add(employee);
+                insertIndexes.add(i);
+            }
+        }
+
+        try {
+            employeeJdbcRepository.insertAll(toInsert);
+        } catch (DataIntegrityViolationException e) {
+            // another request inserted one of these emails after the pre-check; the whole batch was rolled back
+            throw new ResourceNotFoundException("Employee already exist with one of the given emails");
+        }
+        toInsert.forEach(employee -> {
+            emailFilter.put(employee.getEmail());
+            searchIndex.put(employee);
+        });
+        for (int i = 0; i < toInsert.size(); i++) {
+            Employee employee = toInsert.get(i);
+            int index = insertIndexes.get(i);
+            items[index] = new EmployeeBatchResult.Item(index, EmployeeBatchResult.Status.CREATED, employee.getId(),
+                    employee.getEmail(), null);
+        }
+        return new EmployeeBatchResult(toInsert.size(), employees.size() - toInsert.size(), List.of(items));
+    }
+
+    private static boolean hasEmail(Employee employee) {
+        return employee.getEmail() != null && !employee.getEmail().isBlank();
+    }
+
+    // lookups differing only in case find the same row, so they share a call
+    private static String emailKey(Employee employee) {
+        return employee.getEmail().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployeePage(long afterId, int limit) {
+        // fetch one extra row so the last page does not hand out a cursor to an empty page
+        List<Employee> employees = employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        if (employees.size() <= limit) {
+            return new EmployeePage(employees, null);
+        }
+        List<Employee> page = employees.subList(0, limit);
+        return new EmployeePage(page, EmployeePage.encodeCursor(page.get(limit - 1).getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllEmployees(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeJdbcRepository.streamAll()) {
+            employees.forEach(consumer);
+        }
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        // concurrent misses, found or not, join one SingleFlight load, read on the primary since it is kept for
+        // minutes; callers get a copy so they cannot mutate the cached instance
+        Employee employee = employeeCache.getIfPresent(id);
+        if (employee == null) {
+            employee = idLookups.load(id, key -> employeeCache.get(key, this::loadFromPrimary));
+        }
+        return Optional.ofNullable(employee).map(found -> found.toBuilder().build());
+    }
+
+    private Employee loadFromPrimary(long id) {
+        try (ReplicaRoutingDataSource.PrimaryPin ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            return employeeRepository.findFreshById(id).orElse(null);
+        }
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    // Not @Transactional: a cached employee answers without a connection, and every write evicts its entry
+    @Override
+    public Optional<Long> getEmployeeVersion(long id) {
+        Employee cached = employeeCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached.getVersion());
+        }
+        return employeeRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeCollectionVersion getCollectionVersion() {
+        return employeeJdbcRepository.collectionVersion();
     }
 
     @Override
     public Employee updateEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee updatedEmployee;
+        try {
+            updatedEmployee = employeeRepository.save(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceNotFoundException("Employee already exist with given email: " + employee.getEmail());
+        } catch (OptimisticLockingFailureException e) {
+            // the caller's version came from a copy that is now stale; drop it so a retry loads the current row
+            evict(employee.getId());
+            throw e;
+        }
+        emailFilter.put(employee.getEmail());
+        searchIndex.put(updatedEmployee);
+        // save has committed by now, so the next load sees the new row
+        evict(employee.getId());
+        return updatedEmployee;
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    public boolean patchEmployee(long id, Employee changes) {
+        int updatedRows;
+        try {
+            updatedRows = employeeRepository.patchEmployee(id, changes.getFirstName(), changes.getLastName(),
+                    changes.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceNotFoundException("Employee already exist with given email: " + changes.getEmail());
+        }
+        if (updatedRows == 0) {
+            return false;
+        }
+        emailFilter.put(changes.getEmail());
+        evict(id);
+        // the statement does not say which version it produced, so the index cannot order it among other writes
+        reindex(id);
+        return true;
+    }
+
+    @Override
+    public boolean patchEmployee(long id, long expectedVersion, Employee changes) {
+        int updatedRows;
+        try {
+            updatedRows = employeeRepository.patchEmployeeIfVersion(id, expectedVersion, changes.getFirstName(),
+                    changes.getLastName(), changes.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceNotFoundException("Employee already exist with given email: " + changes.getEmail());
+        }
+        if (updatedRows == 0) {
+            // tell a missing employee apart from one that moved past the expected version
+            if (employeeRepository.findVersionById(id).isEmpty()) {
+                return false;
+            }
+            throw new PreconditionFailedException("Employee " + id + " is no longer at version " + expectedVersion);
+        }
+        emailFilter.put(changes.getEmail());
+        evict(id);
+        if (!searchIndex.patch(id, expectedVersion + 1, changes)) {
+            reindex(id);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean deleteEmployee(long id) {
+        int deletedRows = employeeRepository.deleteEmployeeById(id);
+        evict(id);
+        searchIndex.remove(id);
+        return deletedRows > 0;
+    }
+
+    @Override
+    public int deleteEmployees(List<Long> ids) {
+        int deletedRows = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+            deletedRows += employeeRepository.deleteEmployeesByIds(chunk);
+            chunk.forEach(this::evict);
+            chunk.forEach(searchIndex::remove);
+        }
+        return deletedRows;
+    }
+
+    // gives the search index the row as it is now, read from the primary like any cache miss
+    private void reindex(long id) {
+        getEmployeeById(id).ifPresent(searchIndex::put);
+    }
+
+    // a lookup still in flight may have read the row before the write; later lookups must not join it
+    private void evict(long id) {
+        employeeCache.invalidate(id);
+        idLookups.forget(id);
     }
 }
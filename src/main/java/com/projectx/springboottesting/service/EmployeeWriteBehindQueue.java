@@ -0,0 +1,199 @@
+package com.projectx.springboottesting.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeIngestStatus;
+import com.projectx.springboottesting.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in write-behind path for employee creation ({@code employee.write-behind.enabled}).
+ * Accepted employees wait in a bounded queue and a single writer thread inserts them in batches through
+ * {@link EmployeeService#saveEmployees}. A full queue rejects new work instead of growing the heap.
+ * <p>
+ * The queue stops after the web server, so requests still in flight during a graceful shutdown are
+ * accepted and then flushed before the datasource closes.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeWriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindQueue.class);
+
+    private final EmployeeService employeeService;
+
+    private final boolean enabled;
+
+    private final BlockingQueue<PendingEmployee> queue;
+
+    private final int batchSize;
+
+    private final Duration shutdownTimeout;
+
+    // queued employees, bounded by the queue and the batch being written; they are never evicted
+    private final ConcurrentMap<String, EmployeeIngestStatus> queued = new ConcurrentHashMap<>();
+
+    // outcomes of written employees, kept for the retention period as long as there is room
+    private final Cache<String, EmployeeIngestStatus> statuses;
+
+    private volatile boolean accepting;
+
+    private volatile Thread writer;
+
+    public EmployeeWriteBehindQueue(EmployeeService employeeService,
+                                    @Value("${employee.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${employee.write-behind.capacity:10000}") int capacity,
+                                    @Value("${employee.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${employee.write-behind.status-retention:1h}") Duration statusRetention,
+                                    @Value("${employee.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.employeeService = employeeService;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.shutdownTimeout = shutdownTimeout;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(capacity * 10L)
+                .expireAfterWrite(statusRetention)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the queued status with its tracking id, or empty if the queue is full or not accepting work
+     */
+    public Optional<EmployeeIngestStatus> offer(Employee employee) {
+        if (!accepting) {
+            return Optional.empty();
+        }
+        EmployeeIngestStatus status = EmployeeIngestStatus.queued(UUID.randomUUID().toString());
+        // record the status before enqueueing so the writer's update cannot be overwritten
+        queued.put(status.trackingId(), status);
+        if (!queue.offer(new PendingEmployee(status.trackingId(), employee))) {
+            queued.remove(status.trackingId());
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<EmployeeIngestStatus> getStatus(String trackingId) {
+        // queued first: the writer records the outcome before it drops the queued status
+        EmployeeIngestStatus status = queued.get(trackingId);
+        return Optional.ofNullable(status != null ? status : statuses.getIfPresent(trackingId));
+    }
+
+    private void complete(String trackingId, EmployeeIngestStatus status) {
+        statuses.put(trackingId, status);
+        queued.remove(trackingId);
+    }
+
+    private void drain() {
+        List<PendingEmployee> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            PendingEmployee first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingEmployee> batch) {
+        try {
+            EmployeeBatchResult result = employeeService.saveEmployees(batch.stream().map(PendingEmployee::employee).toList());
+            for (EmployeeBatchResult.Item item : result.items()) {
+                String trackingId = batch.get(item.index()).trackingId();
+                complete(trackingId, item.status() == EmployeeBatchResult.Status.CREATED
+                        ? EmployeeIngestStatus.created(trackingId, item.id())
+                        : EmployeeIngestStatus.rejected(trackingId, item.message()));
+            }
+            // never leave a status queued once its batch is done
+            for (PendingEmployee pending : batch) {
+                if (queued.containsKey(pending.trackingId())) {
+                    complete(pending.trackingId(), EmployeeIngestStatus.rejected(pending.trackingId(), "Not written"));
+                }
+            }
+        } catch (RuntimeException e) {
+            // the whole batch was rolled back, e.g. an email was taken concurrently; retry one by one
+            // so that only the offending employees are rejected
+            log.warn("Write-behind batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingEmployee pending : batch) {
+                try {
+                    Employee saved = employeeService.saveEmployee(pending.employee());
+                    complete(pending.trackingId(), EmployeeIngestStatus.created(pending.trackingId(), saved.getId()));
+                } catch (RuntimeException ex) {
+                    complete(pending.trackingId(), EmployeeIngestStatus.rejected(pending.trackingId(), ex.getMessage()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        accepting = true;
+        writer = Thread.ofPlatform().name("employee-write-behind").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        // no interrupt: it could land inside a JDBC call; the writer notices within one poll interval
+        accepting = false;
+        try {
+            if (!current.join(shutdownTimeout)) {
+                log.warn("Write-behind queue did not flush within {}, {} employees dropped", shutdownTimeout, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // lower phases stop later: after the web server has finished its in-flight requests
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record PendingEmployee(String trackingId, Employee employee) {
+    }
+}
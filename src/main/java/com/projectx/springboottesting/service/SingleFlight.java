@@ -0,0 +1,80 @@
+package com.projectx.springboottesting.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Lets concurrent lookups of the same key share one call: the first caller runs the loader on its own thread and the
+ * others wait for its result, or its exception, instead of each sending the same SELECT. Nothing is kept once the
+ * call returns, so a lookup that starts afterwards reads again; this is not a cache.
+ * <p>
+ * If the loading thread is interrupted, its waiters are not handed the failure that caused: they start over, and
+ * one of them loads in its place. A waiter that is interrupted itself gives up with a {@link CancellationException}
+ * and its interrupt flag set, leaving the load to finish for the others.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) {
+                return lead(key, call, loader);
+            }
+            try {
+                return existing.get();
+            } catch (CancellationException abandoned) {
+                // the loading thread was interrupted; try again, likely as the one who loads
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for the lookup of " + key);
+            }
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> call, Function<? super K, ? extends V> loader) {
+        try {
+            V value = loader.apply(key);
+            call.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // anything, so that no waiter is left with a call that never completes
+            if (Thread.currentThread().isInterrupted()) {
+                call.cancel(false);
+            } else {
+                call.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Detaches the call in flight for this key, if any, so later lookups read afresh; callers already waiting on it
+     * still get its result. Used after a write to the key's row.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+    }
+}
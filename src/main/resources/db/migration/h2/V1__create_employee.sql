@@ -0,0 +1,10 @@
+create table employee (
+    id         bigint generated by default as identity,
+    email      varchar(255),
+    first_name varchar(255),
+    last_name  varchar(255),
+    version    bigint not null,
+    primary key (id)
+);
+
+create unique index uk_employee_email on employee (email);
@@ -0,0 +1,10 @@
+create table employee (
+    id         bigint       not null auto_increment,
+    email      varchar(255),
+    first_name varchar(255),
+    last_name  varchar(255),
+    version    bigint       not null,
+    primary key (id)
+) engine = InnoDB;
+
+create unique index uk_employee_email on employee (email);
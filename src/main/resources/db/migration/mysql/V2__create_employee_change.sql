@@ -0,0 +1,20 @@
+-- counts the rows changed in employee, in 16 slots so concurrent writers seldom update the same row;
+-- the sum of the slots is the collection ETag, read without touching employee
+create table employee_change (
+    slot    int    not null,
+    changes bigint not null,
+    primary key (slot)
+) engine = InnoDB;
+
+insert into employee_change (slot, changes)
+values (0, 0), (1, 0), (2, 0), (3, 0), (4, 0), (5, 0), (6, 0), (7, 0),
+       (8, 0), (9, 0), (10, 0), (11, 0), (12, 0), (13, 0), (14, 0), (15, 0);
+
+create trigger employee_inserted after insert on employee for each row
+    update employee_change set changes = changes + 1 where slot = connection_id() % 16;
+
+create trigger employee_updated after update on employee for each row
+    update employee_change set changes = changes + 1 where slot = connection_id() % 16;
+
+create trigger employee_deleted after delete on employee for each row
+    update employee_change set changes = changes + 1 where slot = connection_id() % 16;
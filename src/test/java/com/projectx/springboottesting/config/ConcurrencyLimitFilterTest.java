@@ -0,0 +1,200 @@
+package com.projectx.springboottesting.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A fair semaphore of four permits and a sleep stand in for the connection pool and the database; raising the sleep
+ * from 2ms to 20ms makes the database slow. Clients call in a closed loop on virtual threads.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    private static final int CONNECTIONS = 4;
+
+    private static final int CLIENTS = 64;
+
+    private final Semaphore connections = new Semaphore(CONNECTIONS, true);
+
+    private volatile long queryMillis;
+
+    private final FilterChain database = (request, response) -> {
+        connections.acquireUninterruptibly();
+        try {
+            Thread.sleep(queryMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.release();
+        }
+    };
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ConcurrencyLimitFilter filter(int readLimit) {
+        return new ConcurrencyLimitFilter(new AdaptiveConcurrencyLimit(readLimit, Math.min(readLimit, CONNECTIONS), 200, 10),
+                new AdaptiveConcurrencyLimit(readLimit, Math.min(readLimit, CONNECTIONS), 200, 10), Duration.ofSeconds(1),
+                meterRegistry);
+    }
+
+    /**
+     * Runs the clients for half a second against the healthy database, then slows it down and, after letting the
+     * limit settle, records the latency of every successful request for one and a half seconds.
+     */
+    private Histogram latenciesWithSlowDatabase(Filter filter) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 2);
+        AtomicInteger phase = new AtomicInteger();
+        queryMillis = 2;
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(Thread.ofVirtual().start(() -> {
+                try {
+                    while (phase.get() < 3) {
+                        MockHttpServletResponse response = new MockHttpServletResponse();
+                        long start = System.nanoTime();
+                        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), response, database);
+                        if (response.getStatus() == 200 && phase.get() == 2) {
+                            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                        } else if (response.getStatus() == 503) {
+                            Thread.sleep(10);
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        Thread.sleep(500);
+        queryMillis = 20;
+        phase.set(1);
+        Thread.sleep(300);
+        phase.set(2);
+        Thread.sleep(1500);
+        phase.set(3);
+        for (Thread client : clients) {
+            client.join();
+        }
+        return latencies;
+    }
+
+    @Test
+    @DisplayName("Junit test for p99 latency while the database is slow")
+    public void givenSlowDatabase_whenRequestsLimited_thenP99StaysBounded() throws InterruptedException {
+        //given - precondition or setup
+        Filter unlimited = (request, response, chain) -> chain.doFilter(request, response);
+        Histogram queued = latenciesWithSlowDatabase(unlimited);
+
+        //when - action or the behaviour that we are going to test
+        Histogram limited = latenciesWithSlowDatabase(filter(20));
+
+        //then - verify the output
+        // unlimited, every request waits behind CLIENTS / CONNECTIONS queries of 20ms; a slow machine only adds to
+        // that, so the limited run is compared with the unlimited one rather than with a fixed bound
+        assertThat(queued.getValueAtPercentile(99)).isGreaterThan(TimeUnit.MILLISECONDS.toMicros(200));
+        assertThat(limited.getValueAtPercentile(99)).isLessThan(queued.getValueAtPercentile(99) / 2);
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("kind", "read").counter().count()).isPositive();
+        assertThat(meterRegistry.get("employee.concurrency.limit").tag("kind", "read").gauge().value()).isLessThan(20);
+    }
+
+    @Test
+    @DisplayName("Junit test for a healthy mix of fast and slow requests never being shed")
+    public void givenHealthyMixedLatencies_whenRequestsLimited_thenNoneRejected() throws InterruptedException {
+        //given - precondition or setup
+        // a connection for every client: nothing queues, but one request in five takes ten times as long
+        FilterChain mixed = (request, response) -> {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5) == 0 ? 10 : 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AdaptiveConcurrencyLimit reads = new AdaptiveConcurrencyLimit(20, CONNECTIONS, 200, 20);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(reads, new AdaptiveConcurrencyLimit(20, CONNECTIONS, 200, 20),
+                Duration.ofSeconds(1), meterRegistry);
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        //when - action or the behaviour that we are going to test
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            clients.add(Thread.ofVirtual().start(() -> {
+                try {
+                    while (running.get()) {
+                        MockHttpServletResponse response = new MockHttpServletResponse();
+                        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), response, mixed);
+                        if (response.getStatus() == 503) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        Thread.sleep(1500);
+        running.set(false);
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        //then - verify the output
+        assertThat(rejected.get()).isZero();
+        assertThat(reads.limit()).isGreaterThanOrEqualTo(16);
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("kind", "read").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test for shedding requests over the limit with 503 and Retry-After")
+    public void givenReadLimitReached_whenRequests_thenReadsShedAndWritesAdmitted() throws Exception {
+        //given - precondition or setup
+        queryMillis = 0;
+        AdaptiveConcurrencyLimit reads = new AdaptiveConcurrencyLimit(1, 1, 1, 10);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(reads, new AdaptiveConcurrencyLimit(1, 1, 1, 10),
+                Duration.ofSeconds(2), meterRegistry);
+        Optional<AdaptiveConcurrencyLimit.Permit> held = reads.tryAcquire();
+
+        //when - action or the behaviour that we are going to test
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), read, database);
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), write, database);
+        held.orElseThrow().release(false);
+        MockHttpServletResponse readAfterRelease = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), readAfterRelease, database);
+
+        //then - verify the output
+        assertThat(read.getStatus()).isEqualTo(503);
+        assertThat(read.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(write.getStatus()).isEqualTo(200);
+        assertThat(readAfterRelease.getStatus()).isEqualTo(200);
+        assertThat(reads.inFlight()).isZero();
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("kind", "read").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.concurrency.rejected").tag("kind", "write").counter().count()).isZero();
+    }
+}
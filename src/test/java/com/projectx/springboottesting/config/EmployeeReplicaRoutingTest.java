@@ -0,0 +1,99 @@
+package com.projectx.springboottesting.config;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The application on a primary and one replica, two in-memory H2 databases that never replicate: the replica is a
+ * replica that has not caught up with any write. Nothing here is pinned to the primary, as for a client without the
+ * read-your-writes cookie.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "employee.datasource.routing.enabled=true",
+        "spring.datasource.url=" + EmployeeReplicaRoutingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "employee.datasource.routing.replicas[0].url=" + EmployeeReplicaRoutingTest.REPLICA_URL,
+        "employee.datasource.routing.replicas[0].username=sa",
+        "employee.datasource.routing.replicas[0].password=",
+        "spring.jpa.show-sql=false"})
+public class EmployeeReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    // the application migrates the primary only; the replica needs the schema before the context reads from it
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @BeforeEach
+    void setup() {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("delete from employee");
+        }
+    }
+
+    // the same row on both, as it was before the write the replica has not applied yet
+    private void insertOnBoth(long id) {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("insert into employee (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)",
+                    id, "Tom", "Cruise", "tom" + id + "@gmail.com");
+        }
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById method after a write the replica has not applied")
+    public void givenPatchedOnPrimary_whenGetEmployeeById_thenReturnPatchedRow() {
+        //given - precondition or setup
+        insertOnBoth(1L);
+        employeeService.patchEmployee(1L, Employee.builder().firstName("Thomas").build());
+
+        //when - action or the behaviour that we are going to test
+        Optional<Employee> found = employeeService.getEmployeeById(1L);
+
+        //then - verify the output
+        assertThat(found).map(Employee::getFirstName).contains("Thomas");
+        assertThat(found).map(Employee::getVersion).contains(1L);
+        assertThat(replica.queryForObject("select first_name from employee where id = 1", String.class))
+                .isEqualTo("Tom");
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById method after a delete the replica has not applied")
+    public void givenDeletedOnPrimaryAndListedFromReplica_whenGetEmployeeById_thenReturnEmpty() {
+        //given - precondition or setup
+        insertOnBoth(2L);
+        employeeService.deleteEmployee(2L);
+        // the listing reads the replica and hands its stale row to the second-level cache
+        assertThat(employeeService.getEmployeePage(0, 10).items()).extracting(Employee::getId).containsExactly(2L);
+
+        //when - action or the behaviour that we are going to test
+        Optional<Employee> found = employeeService.getEmployeeById(2L);
+
+        //then - verify the output
+        assertThat(found).isEmpty();
+    }
+}
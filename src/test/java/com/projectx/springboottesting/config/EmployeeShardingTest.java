@@ -0,0 +1,174 @@
+package com.projectx.springboottesting.config;
+
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.exception.CrossShardUpdateException;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The application sharded over three in-memory H2 databases.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "employee.datasource.sharding.enabled=true",
+        "employee.datasource.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "employee.datasource.sharding.shards[0].username=sa",
+        "employee.datasource.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "employee.datasource.sharding.shards[1].username=sa",
+        "employee.datasource.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "employee.datasource.sharding.shards[2].username=sa",
+        "employee.jdbc.stream-fetch-size=1000",
+        "spring.jpa.show-sql=false"})
+public class EmployeeShardingTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Junit test for placing employees on the shard of their email")
+    public void givenEmployees_whenSaved_thenEachRowIsOnTheShardOfItsEmailAndId() {
+        //given - precondition or setup
+        List<Employee> saved = new ArrayList<>();
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 30; i++) {
+            saved.add(employeeService.saveEmployee(employee("placed" + i)));
+        }
+
+        //then - verify the output
+        Set<Integer> usedShards = new HashSet<>();
+        for (Employee employee : saved) {
+            int shard = shards.shardForEmail(employee.getEmail());
+            usedShards.add(shard);
+            assertThat(shards.shardForId(employee.getId())).isEqualTo(shard);
+            assertThat(new JdbcTemplate(shards.shard(shard)).queryForObject(
+                    "select email from employee where id = ?", String.class, employee.getId()))
+                    .isEqualTo(employee.getEmail());
+        }
+        assertThat(usedShards).hasSize(3);
+        assertThat(saved).extracting(Employee::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Junit test for single-shard lookups and batch inserts split by shard")
+    public void givenBatchInsert_whenFindByIdAndEmail_thenFoundOnTheirShard() {
+        //given - precondition or setup
+        List<Employee> batch = IntStream.range(0, 20).mapToObj(i -> employee("batch" + i)).toList();
+
+        //when - action or the behaviour that we are going to test
+        employeeService.saveEmployees(batch);
+
+        //then - verify the output
+        for (Employee employee : batch) {
+            Employee found = employeeRepository.findByEmail(employee.getEmail()).orElseThrow();
+            assertThat(shards.shardForId(found.getId())).isEqualTo(shards.shardForEmail(employee.getEmail()));
+            assertThat(employeeService.getEmployeeById(found.getId())).contains(found);
+        }
+        assertThat(employeeRepository.count()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Junit test for listings merged across shards in id order")
+    public void givenEmployeesOnAllShards_whenListed_thenMergedInIdOrder() {
+        //given - precondition or setup
+        for (int i = 0; i < 25; i++) {
+            employeeService.saveEmployee(employee("listed" + i));
+        }
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> all = employeeService.getAllEmployees();
+        List<Employee> paged = new ArrayList<>();
+        EmployeePage page = employeeService.getEmployeePage(0, 10);
+        paged.addAll(page.items());
+        while (page.next() != null) {
+            page = employeeService.getEmployeePage(EmployeePage.decodeCursor(page.next()), 10);
+            paged.addAll(page.items());
+        }
+        List<Employee> streamed = new ArrayList<>();
+        employeeService.streamAllEmployees(streamed::add);
+
+        //then - verify the output
+        assertThat(all).hasSize(25);
+        assertThat(all).extracting(Employee::getId).isSorted();
+        assertThat(paged).extracting(Employee::getId).containsExactlyElementsOf(all.stream().map(Employee::getId).toList());
+        assertThat(streamed).extracting(Employee::getId).containsExactlyElementsOf(all.stream().map(Employee::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Junit test for lookups by ids across shards, some missing, returned in the order asked for")
+    public void givenIdsOnAllShardsAndMissingIds_whenFindAllById_thenFoundInRequestedOrder() {
+        //given - precondition or setup
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            ids.add(employeeService.saveEmployee(employee("lookup" + i)).getId());
+        }
+        Collections.reverse(ids);
+        List<Long> requested = new ArrayList<>();
+        for (long id : ids) {
+            requested.add(id + 1000);
+            requested.add(id);
+        }
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> found = employeeRepository.findAllById(requested);
+
+        //then - verify the output
+        assertThat(found).extracting(Employee::getId).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    @DisplayName("Junit test for rejecting an email change that would move the employee to another shard")
+    public void givenEmailOfAnotherShard_whenPatchEmployee_thenThrowsCrossShardUpdateException() {
+        //given - precondition or setup
+        Employee saved = employeeService.saveEmployee(employee("mover"));
+        int shard = shards.shardForId(saved.getId());
+        String sameShardEmail = IntStream.range(0, 100).mapToObj(i -> "stays" + i + "@gmail.com")
+                .filter(email -> shards.shardForEmail(email) == shard).findFirst().orElseThrow();
+        String otherShardEmail = IntStream.range(0, 100).mapToObj(i -> "moves" + i + "@gmail.com")
+                .filter(email -> shards.shardForEmail(email) != shard).findFirst().orElseThrow();
+
+        //when - action or the behaviour that we are going to test
+        boolean patched = employeeService.patchEmployee(saved.getId(), Employee.builder().email(sameShardEmail).build());
+
+        //then - verify the output
+        assertThat(patched).isTrue();
+        assertThrows(CrossShardUpdateException.class, () -> employeeService.patchEmployee(saved.getId(),
+                Employee.builder().email(otherShardEmail).build()));
+        assertThat(employeeRepository.findByEmail(sameShardEmail)).isPresent();
+    }
+
+    private static Employee employee(String name) {
+        return Employee.builder()
+                .firstName(name)
+                .lastName("Sharded")
+                .email(name + "@gmail.com")
+                .build();
+    }
+}
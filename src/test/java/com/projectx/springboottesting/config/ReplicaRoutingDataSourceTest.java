@@ -0,0 +1,87 @@
+package com.projectx.springboottesting.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two or three in-memory H2 databases stand in for the primary and its replicas; each knows its own name.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static String nodeName(DataSource routing, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(routing).queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    @DisplayName("Junit test for routing read-only and read-write transactions")
+    public void givenPrimaryAndReplica_whenTransaction_thenRouteByReadOnlyFlag() {
+        //given - precondition or setup
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("primary"), List.of(database("replica")), ReplicaRoutingDataSource.Selection.ROUND_ROBIN));
+
+        //when - action or the behaviour that we are going to test
+        String readOnly = nodeName(routing, true);
+        String readWrite = nodeName(routing, false);
+
+        //then - verify the output
+        assertThat(readOnly).isEqualTo("replica");
+        assertThat(readWrite).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Junit test for round-robin replica selection")
+    public void givenTwoReplicas_whenReadOnlyTransactions_thenAlternateReplicas() {
+        //given - precondition or setup
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("primary"), List.of(database("replica-1"), database("replica-2")),
+                ReplicaRoutingDataSource.Selection.ROUND_ROBIN));
+
+        //when - action or the behaviour that we are going to test
+        List<String> nodes = IntStream.range(0, 4).mapToObj(i -> nodeName(routing, true)).toList();
+
+        //then - verify the output
+        assertThat(nodes).containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+    }
+
+    @Test
+    @DisplayName("Junit test for reads pinned to the primary")
+    public void givenPinnedThread_whenReadOnlyTransaction_thenReadFromPrimary() {
+        //given - precondition or setup
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("primary"), List.of(database("replica")), ReplicaRoutingDataSource.Selection.LEAST_BUSY));
+
+        //when - action or the behaviour that we are going to test
+        String pinned;
+        try (ReplicaRoutingDataSource.PrimaryPin ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            pinned = nodeName(routing, true);
+        }
+        String unpinned = nodeName(routing, true);
+
+        //then - verify the output
+        assertThat(pinned).isEqualTo("primary");
+        assertThat(unpinned).isEqualTo("replica");
+    }
+}
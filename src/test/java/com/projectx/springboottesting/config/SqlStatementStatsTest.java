@@ -0,0 +1,94 @@
+package com.projectx.springboottesting.config;
+
+import com.projectx.springboottesting.dto.SqlStatementReport;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements run against an in-memory H2 database behind the same proxy the application puts around its datasource.
+ */
+public class SqlStatementStatsTest {
+
+    private SqlStatementStats sqlStatementStats;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        sqlStatementStats = new SqlStatementStats(Duration.ZERO, 0, 3);
+        jdbcTemplate = new JdbcTemplate(ProxyDataSourceBuilder
+                .create(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""))
+                .listener(sqlStatementStats)
+                .build());
+        jdbcTemplate.execute("create table employee (id bigint primary key, email varchar(255))");
+        sqlStatementStats.reset();
+    }
+
+    @Test
+    @DisplayName("Junit test for normalizing literals, whitespace and IN lists")
+    public void givenSqlWithLiterals_whenNormalize_thenLiteralsBecomePlaceholders() {
+        //given - precondition or setup
+        String sql = "select *  from employee\n where id in (?, ?,?) and email = 'a''b@gmail.com' and id > 42";
+
+        //when - action or the behaviour that we are going to test
+        String normalized = SqlStatementStats.normalize(sql);
+
+        //then - verify the output
+        assertThat(normalized).isEqualTo("select * from employee where id in (?, ...) and email = ? and id > ?");
+    }
+
+    @Test
+    @DisplayName("Junit test for aggregating executions of the same statement")
+    public void givenStatementsWithDifferentLiterals_whenExecuted_thenCountedAsOneStatement() {
+        //given - precondition or setup
+        jdbcTemplate.update("insert into employee (id, email) values (?, ?)", 1, "john@gmail.com");
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.queryForList("select email from employee where id = " + i);
+        }
+
+        //then - verify the output
+        List<SqlStatementReport> report = sqlStatementStats.top(10, SqlStatementStats.Order.COUNT);
+        assertThat(report).hasSize(2);
+        assertThat(report.get(0).sql()).isEqualTo("select email from employee where id = ?");
+        assertThat(report.get(0).count()).isEqualTo(5);
+        assertThat(report.get(0).errors()).isZero();
+        assertThat(report.get(0).maxMillis()).isGreaterThanOrEqualTo(report.get(0).p50Millis());
+        assertThat(report.get(1).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Junit test for failed statements and the bound on distinct statements")
+    public void givenMoreStatementsThanTracked_whenExecuted_thenRestCountedTogether() {
+        //given - precondition or setup
+        jdbcTemplate.queryForList("select id from employee");
+        try {
+            jdbcTemplate.queryForList("select missing from employee");
+        } catch (RuntimeException expected) {
+            // counted as an error
+        }
+
+        //when - action or the behaviour that we are going to test
+        jdbcTemplate.queryForList("select email from employee");
+        jdbcTemplate.queryForList("select count(*) from employee");
+
+        //then - verify the output
+        List<SqlStatementReport> report = sqlStatementStats.top(10, SqlStatementStats.Order.COUNT);
+        assertThat(report).extracting(SqlStatementReport::sql).containsExactlyInAnyOrder(
+                "select id from employee", "select missing from employee", "select email from employee",
+                SqlStatementStats.OTHER_STATEMENTS);
+        assertThat(report).filteredOn(r -> r.sql().equals("select missing from employee"))
+                .singleElement().extracting(SqlStatementReport::errors).isEqualTo(1L);
+    }
+}
@@ -1,26 +1,46 @@
 package com.projectx.springboottesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.dto.EmployeeImportEvent;
+import com.projectx.springboottesting.dto.EmployeeIngestStatus;
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.exception.PreconditionFailedException;
 import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeImporter;
 import com.projectx.springboottesting.service.EmployeeService;
+import com.projectx.springboottesting.service.EmployeeWriteBehindQueue;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 
 @WebMvcTest
@@ -32,6 +52,12 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeWriteBehindQueue writeBehindQueue;
+
+    @MockBean
+    private EmployeeImporter employeeImporter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -70,6 +96,211 @@ public class EmployeeControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @Test
+    @DisplayName("Junit test for createEmployee (POST) with Prefer: respond-async")
+    public void givenAsyncPreference_whenCreateEmployee_thenReturnAccepted() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Bill")
+                .lastName("Gates")
+                .email("billgates@gmail.com")
+                .build();
+        BDDMockito.given(writeBehindQueue.isEnabled()).willReturn(true);
+        BDDMockito.given(writeBehindQueue.offer(ArgumentMatchers.any(Employee.class)))
+                .willReturn(Optional.of(EmployeeIngestStatus.queued("abc")));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "/api/employees/ingest/abc"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.trackingId", CoreMatchers.is("abc")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state", CoreMatchers.is("QUEUED")));
+        Mockito.verify(employeeService, Mockito.never()).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("Junit test for createEmployee (POST) with respond-async among other preferences")
+    public void givenCombinedPreferences_whenCreateEmployee_thenReturnAccepted() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Bill")
+                .lastName("Gates")
+                .email("billgates@gmail.com")
+                .build();
+        BDDMockito.given(writeBehindQueue.isEnabled()).willReturn(true);
+        BDDMockito.given(writeBehindQueue.offer(ArgumentMatchers.any(Employee.class)))
+                .willReturn(Optional.of(EmployeeIngestStatus.queued("abc")));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .header("Prefer", "return=minimal, Respond-Async; foo=bar, wait=5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Preference-Applied", "respond-async"));
+        Mockito.verify(employeeService, Mockito.never()).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("Junit test for createEmployee (POST) with Prefer: respond-async - queue full(429)")
+    public void givenFullQueue_whenCreateEmployeeAsync_thenReturnTooManyRequests() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Bill")
+                .lastName("Gates")
+                .email("billgates@gmail.com")
+                .build();
+        BDDMockito.given(writeBehindQueue.isEnabled()).willReturn(true);
+        BDDMockito.given(writeBehindQueue.offer(ArgumentMatchers.any(Employee.class))).willReturn(Optional.empty());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("Junit test for importEmployees (POST import) - CSV")
+    public void givenCsvBody_whenImportEmployees_thenStreamReport() throws Exception {
+        //given - precondition or setup
+        String csv = "firstName,lastName,email\nTony,Stark,tony@gmail.com\nBruce,Wayne,\n";
+        BDDMockito.given(employeeImporter.importEmployees(ArgumentMatchers.any(InputStream.class),
+                        ArgumentMatchers.eq(EmployeeImporter.Format.CSV), ArgumentMatchers.eq(StandardCharsets.ISO_8859_1),
+                        ArgumentMatchers.any()))
+                .willAnswer(invocation -> {
+                    Consumer<EmployeeImportEvent> events = invocation.getArgument(3);
+                    assertThat(invocation.getArgument(0, InputStream.class).readAllBytes())
+                            .isEqualTo(csv.getBytes(StandardCharsets.ISO_8859_1));
+                    events.accept(EmployeeImportEvent.rejected(3, "Email is required"));
+                    events.accept(EmployeeImportEvent.progress(2, 1, 1));
+                    EmployeeImportEvent completed = EmployeeImportEvent.completed(2, 1, 1);
+                    events.accept(completed);
+                    return completed;
+                });
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/import")
+                .contentType("text/csv;charset=ISO-8859-1")
+                .content(csv.getBytes(StandardCharsets.ISO_8859_1)));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"type\":\"REJECTED\",\"line\":3,\"message\":\"Email is required\"}\n"
+                                + "{\"type\":\"PROGRESS\",\"rows\":2,\"created\":1,\"rejected\":1}\n"
+                                + "{\"type\":\"COMPLETED\",\"rows\":2,\"created\":1,\"rejected\":1}\n"));
+    }
+
+    @Test
+    @DisplayName("Junit test for importEmployees (POST import) - Unsupported media type(415)")
+    public void givenJsonArrayBody_whenImportEmployees_thenReturnUnsupportedMediaType() throws Exception {
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType())
+                .andDo(MockMvcResultHandlers.print());
+        BDDMockito.then(employeeImporter).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("Junit test for searchEmployees (GET search?q) - Valid(200)")
+    public void givenQuery_whenSearchEmployees_thenReturnRankedEmployees() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tonystark@gmail.com")
+                .build();
+        BDDMockito.given(employeeService.searchEmployees("ton", 5)).willReturn(List.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search")
+                .param("q", "ton")
+                .param("limit", "5"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].lastName", CoreMatchers.is("Stark")));
+    }
+
+    @Test
+    @DisplayName("Junit test for searchEmployees (GET search?q) - Blank query(400)")
+    public void givenBlankQuery_whenSearchEmployees_thenReturnBadRequest() throws Exception {
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search")
+                .param("q", " "));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit test for getIngestStatus (GET ingest/{trackingId})")
+    public void givenTrackingId_whenGetIngestStatus_thenReturnStatus() throws Exception {
+        //given - precondition or setup
+        BDDMockito.given(writeBehindQueue.getStatus("abc"))
+                .willReturn(Optional.of(EmployeeIngestStatus.created("abc", 7L)));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/ingest/{trackingId}", "abc"));
+
+        //then - verify the output
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employeeId", CoreMatchers.is(7)));
+    }
+
+    @Test
+    @DisplayName("Junit test for createEmployees (POST batch)")
+    public void givenListOfEmployee_whenCreateEmployees_thenReturnPerItemResults() throws Exception {
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                Employee.builder().firstName("Bill").lastName("Gates").email("billgates@gmail.com").build(),
+                Employee.builder().firstName("Bill").lastName("Gates").email("billgates@gmail.com").build());
+
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willReturn(new EmployeeBatchResult(1, 1, List.of(
+                        new EmployeeBatchResult.Item(0, EmployeeBatchResult.Status.CREATED, 1L, "billgates@gmail.com", null),
+                        new EmployeeBatchResult.Item(1, EmployeeBatchResult.Status.DUPLICATE, null, "billgates@gmail.com",
+                                "Employee already exist with given email: billgates@gmail.com"))));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employeeList)));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].status", CoreMatchers.is("DUPLICATE")));
+    }
+
     @Test
     @DisplayName("Junit test for getAllEmployee (GET)")
     public void givenListOfEmployee_whenGetAllEmployee_thenReturnAllEmployee() throws Exception {
@@ -86,6 +317,7 @@ public class EmployeeControllerTest {
                 .email("tonyStark@gmail.com")
                 .build());
 
+        BDDMockito.given(employeeService.getCollectionVersion()).willReturn(new EmployeeCollectionVersion(4));
         BDDMockito.given(employeeService.getAllEmployees()).willReturn(employeeList);
 
         //when - action or the behaviour that we are going to test
@@ -94,9 +326,231 @@ public class EmployeeControllerTest {
         //then - verify the output
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4\""))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)));
     }
 
+    @Test
+    @DisplayName("Junit test for getAllEmployee (GET) - unchanged collection(304)")
+    public void givenMatchingCollectionETag_whenGetAllEmployee_thenReturnNotModified() throws Exception {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.getCollectionVersion()).willReturn(new EmployeeCollectionVersion(4));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .header("If-None-Match", "\"4\""));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        BDDMockito.then(employeeService).should(Mockito.never()).getAllEmployees();
+    }
+
+    @Test
+    @DisplayName("Junit test for getAllEmployee (GET) - Accept: application/cbor")
+    public void givenCborAccept_whenGetAllEmployee_thenReturnCbor() throws Exception {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.getCollectionVersion()).willReturn(new EmployeeCollectionVersion(1));
+        BDDMockito.given(employeeService.getAllEmployees()).willReturn(List.of(Employee.builder()
+                .id(1L)
+                .firstName("Martin")
+                .lastName("Fisher")
+                .email("martinfisher@gmail.com")
+                .build()));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .accept(MediaType.APPLICATION_CBOR));
+
+        //then - verify the output
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"1-cbor\""))
+                .andExpect(MockMvcResultMatchers.header().stringValues("Vary", CoreMatchers.hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+        Employee[] employees = new CBORMapper().readValue(body, Employee[].class);
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("martinfisher@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Junit test for getAllEmployee (GET) - Accept: application/x-protobuf")
+    public void givenProtobufAccept_whenGetAllEmployee_thenReturnEmployeeListMessage() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(7L)
+                .firstName("Ada")
+                .lastName("Lovelace")
+                .email("ada@gmail.com")
+                .version(2)
+                .build();
+        BDDMockito.given(employeeService.getCollectionVersion()).willReturn(new EmployeeCollectionVersion(9));
+        BDDMockito.given(employeeService.getAllEmployees()).willReturn(List.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .accept("application/x-protobuf"));
+
+        //then - verify the output
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+        // EmployeeList.employees (1) holding one embedded Employee
+        CodedInputStream list = CodedInputStream.newInstance(body);
+        assertThat(WireFormat.getTagFieldNumber(list.readTag())).isEqualTo(1);
+        CodedInputStream in = list.readBytes().newCodedInput();
+        assertThat(list.isAtEnd()).isTrue();
+        assertThat(WireFormat.getTagFieldNumber(in.readTag())).isEqualTo(1);
+        assertThat(in.readInt64()).isEqualTo(7L);
+        assertThat(WireFormat.getTagFieldNumber(in.readTag())).isEqualTo(2);
+        assertThat(in.readString()).isEqualTo("Ada");
+        assertThat(WireFormat.getTagFieldNumber(in.readTag())).isEqualTo(3);
+        assertThat(in.readString()).isEqualTo("Lovelace");
+        assertThat(WireFormat.getTagFieldNumber(in.readTag())).isEqualTo(4);
+        assertThat(in.readString()).isEqualTo("ada@gmail.com");
+        assertThat(WireFormat.getTagFieldNumber(in.readTag())).isEqualTo(5);
+        assertThat(in.readInt64()).isEqualTo(2L);
+        assertThat(in.isAtEnd()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Junit test for getAllEmployee (GET) - Accept-Encoding: gzip above the size threshold")
+    public void givenLargeListAndGzipAcceptEncoding_whenGetAllEmployee_thenReturnGzippedJson() throws Exception {
+        //given - precondition or setup
+        List<Employee> employeeList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employeeList.add(Employee.builder().id(i).firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@gmail.com").build());
+        }
+        BDDMockito.given(employeeService.getCollectionVersion()).willReturn(new EmployeeCollectionVersion(100));
+        BDDMockito.given(employeeService.getAllEmployees()).willReturn(employeeList);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .header("Accept-Encoding", "gzip, deflate"));
+
+        //then - verify the output
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                .andExpect(MockMvcResultMatchers.header().stringValues("Vary", CoreMatchers.hasItem("Accept-Encoding")))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"100-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(objectMapper.readValue(in, Employee[].class)).hasSize(100);
+        }
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById (GET) - Accept-Encoding: zstd below the size threshold")
+    public void givenSmallResponseAndZstdAcceptEncoding_whenGetEmployeeById_thenReturnUncompressed() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ada").email("ada@gmail.com").build();
+        BDDMockito.given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", 1L)
+                .header("Accept-Encoding", "zstd, gzip"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("ada@gmail.com")));
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeePage (GET ?limit) - Valid(200)")
+    public void givenLimitAndCursor_whenGetEmployeePage_thenReturnPageAndNextCursor() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(6L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tonystark@gmail.com")
+                .build();
+        String next = EmployeePage.encodeCursor(6L);
+
+        BDDMockito.given(employeeService.getCollectionVersion()).willReturn(new EmployeeCollectionVersion(6));
+        BDDMockito.given(employeeService.getEmployeePage(5L, 1))
+                .willReturn(new EmployeePage(List.of(employee), next));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("limit", "1")
+                .param("after", EmployeePage.encodeCursor(5L)));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next", CoreMatchers.is(next)));
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeePage (GET ?limit) - Invalid cursor(400)")
+    public void givenMalformedCursor_whenGetEmployeePage_thenReturnBadRequest() throws Exception {
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("limit", "10")
+                .param("after", "not-a-cursor"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit test for streamAllEmployees (GET application/x-ndjson)")
+    @SuppressWarnings("unchecked")
+    public void givenListOfEmployee_whenStreamAllEmployees_thenReturnOneJsonObjectPerLine() throws Exception {
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                Employee.builder().id(1L).firstName("Martin").lastName("Fisher").email("martinfisher@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tonyStark@gmail.com").build());
+
+        BDDMockito.willAnswer(invocation -> {
+            employeeList.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).given(employeeService).streamAllEmployees(ArgumentMatchers.any());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .accept(MediaType.APPLICATION_NDJSON));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        objectMapper.writeValueAsString(employeeList.get(0)) + "\n"
+                                + objectMapper.writeValueAsString(employeeList.get(1)) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Junit test for exportEmployees (GET export)")
+    @SuppressWarnings("unchecked")
+    public void givenListOfEmployee_whenExportEmployees_thenReturnOneCsvRowPerEmployee() throws Exception {
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                Employee.builder().id(1L).firstName("Martin").lastName("Fisher").email("martinfisher@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Tony \"Iron Man\"").lastName("Stark, Jr.").email("tonyStark@gmail.com")
+                        .version(3L).build());
+
+        BDDMockito.willAnswer(invocation -> {
+            employeeList.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).given(employeeService).streamAllEmployees(ArgumentMatchers.any());
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/export"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition", "attachment; filename=\"employees.csv\""))
+                .andExpect(MockMvcResultMatchers.content().string("id,firstName,lastName,email,version\n"
+                        + "1,Martin,Fisher,martinfisher@gmail.com,0\n"
+                        + "2,\"Tony \"\"Iron Man\"\"\",\"Stark, Jr.\",tonyStark@gmail.com,3\n"));
+    }
+
     @Test
     @DisplayName("Junit test for getEmployeeById - (GET) - Valid(200)")
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee() throws Exception {
@@ -108,6 +562,7 @@ public class EmployeeControllerTest {
                 .firstName("Tony")
                 .lastName("Stark")
                 .email("tonystark@gmail.com")
+                .version(3L)
                 .build();
 
         BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
@@ -117,11 +572,76 @@ public class EmployeeControllerTest {
 
         //then - verify the output
         response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(1)))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("tonystark@gmail.com")))
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("Junit test for getEmployeeById - (GET) - unchanged(304)")
+    public void givenMatchingETag_whenGetEmployeeById_thenReturnNotModifiedWithoutLoading() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", "\"3\""));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""))
+                .andDo(MockMvcResultHandlers.print());
+        BDDMockito.then(employeeService).should(Mockito.never()).getEmployeeById(employeeId);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById - (GET) - unchanged CBOR representation(304)")
+    public void givenMatchingCborETag_whenGetEmployeeById_thenReturnNotModifiedWithSameETag() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"3-cbor\""));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"3-cbor\""))
+                .andExpect(MockMvcResultMatchers.header().stringValues("Vary", CoreMatchers.hasItem("Accept")))
+                .andDo(MockMvcResultHandlers.print());
+        BDDMockito.then(employeeService).should(Mockito.never()).getEmployeeById(employeeId);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById - (GET) - changed since If-None-Match(200)")
+    public void givenStaleETag_whenGetEmployeeById_thenReturnEmployeeWithNewETag() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tonystark@gmail.com")
+                .version(4L)
+                .build();
+        BDDMockito.given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(4L));
+        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", "\"3\""));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().stringValues("ETag", "\"4\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.is(4)))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     @DisplayName("Junit test for getEmployeeById - (GET) - Invalid(404)")
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmployee() throws Exception {
@@ -203,12 +723,163 @@ public class EmployeeControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("Junit test for updateEmployeeById - (PUT) - stale If-Match(412)")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tonystark@gmail.com")
+                .version(2L)
+                .build();
+        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andDo(MockMvcResultHandlers.print());
+        BDDMockito.then(employeeService).should(Mockito.never()).updateEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("Junit test for updateEmployeeById - (PUT) - concurrent update(409)")
+    public void givenConcurrentUpdate_whenUpdateEmployee_thenReturnConflict() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tonystark@gmail.com")
+                .version(2L)
+                .build();
+        BDDMockito.given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+        BDDMockito.given(employeeService.updateEmployee(ArgumentMatchers.any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isConflict())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee - (PATCH) - If-Match(204)")
+    public void givenIfMatch_whenPatchEmployee_thenReturnNoContentWithNextETag() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.eq(4L),
+                        ArgumentMatchers.any(Employee.class)))
+                .willReturn(true);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"johnwick@gmail.com\"}"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNoContent())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"5\""))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee - (PATCH) - If-Match of a compressed CBOR representation(204)")
+    public void givenRepresentationIfMatch_whenPatchEmployee_thenMatchOnVersion() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.eq(4L),
+                        ArgumentMatchers.any(Employee.class)))
+                .willReturn(true);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"4-cbor-gzip\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"johnwick@gmail.com\"}"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNoContent())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee - (PATCH) - stale If-Match(412)")
+    public void givenStaleIfMatch_whenPatchEmployee_thenReturnPreconditionFailed() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.eq(4L),
+                        ArgumentMatchers.any(Employee.class)))
+                .willThrow(new PreconditionFailedException("Employee 1 is no longer at version 4"));
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"johnwick@gmail.com\"}"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee - (PATCH) - Valid(204)")
+    public void givenEmployeeIdAndChanges_whenPatchEmployee_thenReturnNoContent() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(Employee.class)))
+                .willReturn(true);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"johnwick@gmail.com\"}"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNoContent())
+                .andDo(MockMvcResultHandlers.print());
+        BDDMockito.then(employeeService).should(Mockito.never()).getEmployeeById(employeeId);
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee - (PATCH) - Invalid(404)")
+    public void givenInvalidEmployeeId_whenPatchEmployee_thenReturnNotFound() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.patchEmployee(ArgumentMatchers.eq(employeeId), ArgumentMatchers.any(Employee.class)))
+                .willReturn(false);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"John\"}"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     @DisplayName("Junit for delete employee - (DELETE) - valid(200)")
     public void givenEmployeeId_whenDeleteById_thenReturnOk() throws Exception {
         //given - precondition or setup
         long employeeId = 1L;
-        BDDMockito.willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        BDDMockito.given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         //when - action or the behaviour that we are going to test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employeeId));
@@ -217,4 +888,35 @@ public class EmployeeControllerTest {
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print());
     }
+
+    @Test
+    @DisplayName("Junit for delete employee - (DELETE) - Invalid(404)")
+    public void givenInvalidEmployeeId_whenDeleteById_thenReturnNotFound() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        BDDMockito.given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees/{id}", employeeId));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("Junit for bulk delete employees - (DELETE ?ids) - valid(200)")
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2);
+
+        //when - action or the behaviour that we are going to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.delete("/api/employees")
+                .param("ids", "1,2,3"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("2 employees deleted successfully!."))
+                .andDo(MockMvcResultHandlers.print());
+    }
 }
@@ -0,0 +1,176 @@
+package com.projectx.springboottesting.controller;
+
+import com.projectx.springboottesting.config.ReactiveRoutesConfig;
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class EmployeeHandlerTest {
+
+    private ReactiveEmployeeRepository employeeRepository;
+
+    private WebTestClient webTestClient;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository = Mockito.mock(ReactiveEmployeeRepository.class);
+        webTestClient = WebTestClient.bindToRouterFunction(
+                new ReactiveRoutesConfig().employeeRoutes(new EmployeeHandler(employeeRepository))).build();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Bill")
+                .lastName("Gates")
+                .email("billgates@gmail.com")
+                .version(3)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Junit test for createEmployee (POST) on the reactive stack")
+    public void givenEmployee_whenCreateEmployee_thenReturnSavedEmployee() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Mono.empty());
+        BDDMockito.given(employeeRepository.save(ArgumentMatchers.any(Employee.class))).willReturn(Mono.just(employee));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    @Test
+    @DisplayName("Junit test for getAllEmployees (GET) with limit and a malformed cursor on the reactive stack")
+    public void givenMalformedCursor_whenGetEmployeePage_thenReturn400() {
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees?limit=10&after=!!")
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isBadRequest();
+        Mockito.verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Junit test for getAllEmployees (GET) with limit on the reactive stack")
+    public void givenMoreEmployeesThanLimit_whenGetEmployeePage_thenReturnPageWithCursor() {
+        //given - precondition or setup
+        Employee second = employee.toBuilder().id(2L).email("second@gmail.com").build();
+        BDDMockito.given(employeeRepository.collectionVersion()).willReturn(Mono.just(new EmployeeCollectionVersion(8)));
+        BDDMockito.given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, 2))
+                .willReturn(Flux.just(employee, second));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees?limit=1").exchange();
+
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.next").isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById (GET) with a current If-None-Match on the reactive stack")
+    public void givenCurrentETag_whenGetEmployeeById_thenReturn304() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.findVersionById(1L)).willReturn(Mono.just(3L));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isNotModified();
+        Mockito.verify(employeeRepository, Mockito.never()).findById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("Junit test for updateEmployee (PUT) with a stale If-Match on the reactive stack")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.findById(1L)).willReturn(Mono.just(employee));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isEqualTo(412);
+        Mockito.verify(employeeRepository, Mockito.never())
+                .updateEmployeeIfVersion(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Junit test for updateEmployee (PUT) racing another update on the reactive stack")
+    public void givenConcurrentUpdate_whenUpdateEmployee_thenReturn409() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.findById(1L)).willReturn(Mono.just(employee));
+        BDDMockito.given(employeeRepository.updateEmployeeIfVersion(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(3L),
+                ArgumentMatchers.any(Employee.class))).willReturn(Mono.just(0L));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee (PATCH) with If-Match on the reactive stack")
+    public void givenCurrentIfMatch_whenPatchEmployee_thenReturn204WithNextETag() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.patchEmployeeIfVersion(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(3L),
+                ArgumentMatchers.any(Employee.class))).willReturn(Mono.just(1L));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.patch().uri("/api/employees/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"firstName\":\"William\"}")
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+    }
+
+    @Test
+    @DisplayName("Junit test for deleteEmployee (DELETE) of a missing employee on the reactive stack")
+    public void givenMissingEmployee_whenDeleteEmployee_thenReturn404() {
+        //given - precondition or setup
+        BDDMockito.given(employeeRepository.deleteEmployeeById(1L)).willReturn(Mono.just(0L));
+
+        //when - action or the behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.delete().uri("/api/employees/1").exchange();
+
+        //then - verify the output
+        response.expectStatus().isNotFound();
+    }
+}
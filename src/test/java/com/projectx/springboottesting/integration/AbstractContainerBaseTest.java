@@ -12,7 +12,8 @@ public abstract class AbstractContainerBaseTest {
         SQL_CONTAINER = new MySQLContainer("mysql:8.1.0")
                 .withUsername("root")
                 .withPassword("root")
-                .withDatabaseName("ems");;
+                .withDatabaseName("ems");
+        SQL_CONTAINER.withUrlParam("rewriteBatchedStatements", "true");
         SQL_CONTAINER.start();
     }
 
@@ -0,0 +1,77 @@
+package com.projectx.springboottesting.integration;
+
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput of the single-item path against the JDBC batch path on a real MySQL.
+ * Run with {@code ./gradlew benchmark}; excluded from the regular test task.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.jpa.show-sql=false")
+public class EmployeeBatchInsertBenchmarkIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Benchmark saveEmployee one by one against saveEmployees in JDBC batches")
+    public void givenManyEmployees_whenInsertedInBatches_thenThroughputBeatsSingleInserts() {
+        //given - precondition or setup
+        List<Employee> single = employees("single", ROWS);
+        List<Employee> batched = employees("batch", ROWS);
+
+        //when - action or the behaviour that we are going to test
+        long start = System.nanoTime();
+        single.forEach(employeeService::saveEmployee);
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        EmployeeBatchResult result = employeeService.saveEmployees(batched);
+        long batchNanos = System.nanoTime() - start;
+
+        //then - verify the output
+        double singleRate = ROWS / (singleNanos / 1e9);
+        double batchRate = ROWS / (batchNanos / 1e9);
+        System.out.printf("single-item inserts: %,.0f rows/s%nbatched inserts:     %,.0f rows/s (%.1fx)%n",
+                singleRate, batchRate, batchRate / singleRate);
+        assertThat(result.created()).isEqualTo(ROWS);
+        assertThat(employeeRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(batchRate).isGreaterThan(singleRate);
+    }
+
+    private static List<Employee> employees(String prefix, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@gmail.com")
+                    .build());
+        }
+        return employees;
+    }
+}
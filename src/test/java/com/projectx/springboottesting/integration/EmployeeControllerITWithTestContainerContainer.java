@@ -1,6 +1,7 @@
 package com.projectx.springboottesting.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
 import com.projectx.springboottesting.model.Employee;
 import com.projectx.springboottesting.repository.EmployeeRepository;
 import org.hamcrest.CoreMatchers;
@@ -226,4 +227,42 @@ public class EmployeeControllerITWithTestContainerContainer extends AbstractCont
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print());
     }
+
+    @Test
+    @DisplayName("Junit test for createEmployees (POST batch) with a client-sent version, then updated and searched")
+    public void givenBatchItemWithVersion_whenCreatedThenUpdated_thenSearchFindsTheUpdate() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Bruce")
+                .lastName("Wayne")
+                .email("brucewayne@gmail.com")
+                .version(5)
+                .build();
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(employee))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long employeeId = objectMapper.readValue(created, EmployeeBatchResult.class).items().get(0).id();
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Clark")
+                .lastName("Wayne")
+                .email("brucewayne@gmail.com")
+                .build();
+
+        //when - action or the behaviour that we are going to test
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/employees/{id}", employeeId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedEmployee)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/search")
+                .param("q", "Clark"));
+
+        //then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("Clark")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].version", CoreMatchers.is(1)));
+    }
 }
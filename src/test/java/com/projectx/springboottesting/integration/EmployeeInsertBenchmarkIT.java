@@ -0,0 +1,76 @@
+package com.projectx.springboottesting.integration;
+
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import com.projectx.springboottesting.service.EmailBloomFilter;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput of the old "findByEmail then save" path against {@code saveEmployee} with a loaded
+ * email filter, which skips the pre-check for new emails. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.jpa.show-sql=false")
+public class EmployeeInsertBenchmarkIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+        emailFilter.rebuild();
+    }
+
+    @Test
+    @DisplayName("Benchmark pre-checked inserts against filter-guarded inserts")
+    public void givenNewEmails_whenSavedThroughFilter_thenThroughputBeatsPreCheckedInserts() {
+        //when - action or the behaviour that we are going to test
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Employee employee = employee("checked", i);
+            if (employeeRepository.findByEmail(employee.getEmail()).isEmpty()) {
+                employeeRepository.save(employee);
+            }
+        }
+        long checkedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            employeeService.saveEmployee(employee("filtered", i));
+        }
+        long filteredNanos = System.nanoTime() - start;
+
+        //then - verify the output
+        double checkedRate = ROWS / (checkedNanos / 1e9);
+        double filteredRate = ROWS / (filteredNanos / 1e9);
+        System.out.printf("findByEmail + save:     %,.0f rows/s%nfilter + unique index:  %,.0f rows/s (%.1fx)%n",
+                checkedRate, filteredRate, filteredRate / checkedRate);
+        assertThat(employeeRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(filteredRate).isGreaterThan(checkedRate);
+    }
+
+    private static Employee employee(String prefix, int i) {
+        return Employee.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email(prefix + i + "@gmail.com")
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.projectx.springboottesting.integration;
+
+import com.projectx.springboottesting.config.ShardRoutingDataSource;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeRepository;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * saveEmployees on two MySQL shards, the shared container and one of its own, both with
+ * {@code rewriteBatchedStatements=true}: each chunk goes out as multi-row INSERTs, whose ids the shard interleaves
+ * by the session's {@code auto_increment_increment}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "employee.datasource.sharding.enabled=true",
+        "employee.batch.size=50",
+        "spring.jpa.show-sql=false"})
+public class EmployeeShardedBatchInsertIT extends AbstractContainerBaseTest {
+
+    static final MySQLContainer SECOND_SHARD;
+
+    static {
+        SECOND_SHARD = new MySQLContainer("mysql:8.1.0")
+                .withUsername("root")
+                .withPassword("root")
+                .withDatabaseName("ems");
+        SECOND_SHARD.withUrlParam("rewriteBatchedStatements", "true");
+        SECOND_SHARD.start();
+    }
+
+    @DynamicPropertySource
+    public static void shardProperties(DynamicPropertyRegistry registry) {
+        MySQLContainer[] containers = {SQL_CONTAINER, SECOND_SHARD};
+        for (int i = 0; i < containers.length; i++) {
+            MySQLContainer container = containers[i];
+            registry.add("employee.datasource.sharding.shards[" + i + "].url", container::getJdbcUrl);
+            registry.add("employee.datasource.sharding.shards[" + i + "].username", container::getUsername);
+            registry.add("employee.datasource.sharding.shards[" + i + "].password", container::getPassword);
+        }
+    }
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Integration test for the ids saveEmployees returns from multi-row inserts on MySQL shards")
+    public void givenBatchOnMySqlShards_whenSaveEmployees_thenEachIdNamesItsRow() {
+        //given - precondition or setup
+        List<Employee> batch = IntStream.range(0, 300).mapToObj(i -> Employee.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("batch" + i + "@gmail.com")
+                .build()).toList();
+
+        //when - action or the behaviour that we are going to test
+        EmployeeBatchResult result = employeeService.saveEmployees(batch);
+
+        //then - verify the output
+        assertThat(result.created()).isEqualTo(300);
+        assertThat(result.items()).extracting(EmployeeBatchResult.Item::id).doesNotContainNull().doesNotHaveDuplicates();
+        for (EmployeeBatchResult.Item item : result.items()) {
+            int shard = shards.shardForEmail(item.email());
+            assertThat(shards.shardForId(item.id())).isEqualTo(shard);
+            assertThat(new JdbcTemplate(shards.shard(shard)).queryForObject(
+                    "select email from employee where id = ?", String.class, item.id()))
+                    .isEqualTo(item.email());
+        }
+    }
+}
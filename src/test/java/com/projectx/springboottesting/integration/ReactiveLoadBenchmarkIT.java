@@ -0,0 +1,172 @@
+package com.projectx.springboottesting.integration;
+
+import com.projectx.springboottesting.SpringBootTestingApplication;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serves the same reads from the servlet/JPA stack and from the {@code reactive} profile (WebFlux over R2DBC)
+ * against MySQL, with {@value #CLIENTS} closed-loop clients each holding its own connection for
+ * {@value #SECONDS} seconds. Next to the latency percentiles it reports what the open connections cost the
+ * server: live platform threads and retained heap halfway through the run, over an idle baseline, per
+ * connection. The clients run on virtual threads in the same JVM, so they add the same small amount to both
+ * modes. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ReactiveLoadBenchmarkIT extends AbstractContainerBaseTest {
+
+    private static final int CLIENTS = 5_000;
+
+    private static final int SECONDS = 30;
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Test
+    @DisplayName("Benchmark the servlet/JPA stack against WebFlux and R2DBC at high connection counts")
+    public void givenManyConnections_whenServedReactively_thenReportTailLatencyAndMemoryPerConnection() throws Exception {
+        // the servlet run goes first: Hibernate creates the table that R2DBC then reads
+        Result servlet = run("default");
+        Result reactive = run("reactive");
+
+        System.out.printf("%-10s %12s %10s %10s %10s %8s %14s %14s%n", "mode", "requests/s", "p50 ms", "p99 ms",
+                "p999 ms", "errors", "threads/conn", "heap KB/conn");
+        for (Result result : List.of(servlet, reactive)) {
+            System.out.printf("%-10s %,12.0f %10.1f %10.1f %10.1f %8d %14.3f %14.1f%n", result.mode, result.throughput,
+                    result.p50 / 1e6, result.p99 / 1e6, result.p999 / 1e6, result.errors,
+                    result.threads / (double) CLIENTS, result.heapBytes / 1024.0 / CLIENTS);
+        }
+        assertThat(reactive.errors).isZero();
+    }
+
+    private Result run(String profile) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=" + SQL_CONTAINER.getJdbcUrl(),
+                        "--spring.datasource.username=" + SQL_CONTAINER.getUsername(),
+                        "--spring.datasource.password=" + SQL_CONTAINER.getPassword(),
+                        "--spring.r2dbc.url=r2dbc:mysql://" + SQL_CONTAINER.getHost() + ":"
+                                + SQL_CONTAINER.getFirstMappedPort() + "/" + SQL_CONTAINER.getDatabaseName(),
+                        "--spring.r2dbc.username=" + SQL_CONTAINER.getUsername(),
+                        "--spring.r2dbc.password=" + SQL_CONTAINER.getPassword(),
+                        // the reactive stack has no cache, so keep the servlet one out of the way too
+                        "--employee.cache.maximum-size=0")) {
+            if (!profile.equals("reactive")) {
+                EmployeeService employeeService = context.getBean(EmployeeService.class);
+                if (employeeService.getEmployeePage(0, 1).items().isEmpty()) {
+                    seed(employeeService);
+                }
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(profile, "http://localhost:" + port + "/api/employees/");
+        }
+    }
+
+    private static void seed(EmployeeService employeeService) {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@gmail.com").build());
+        }
+        employeeService.saveEmployees(employees);
+    }
+
+    private static Result drive(String mode, String baseUrl) throws InterruptedException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        int idleThreads = threadBean.getThreadCount();
+        long idleHeap = retainedHeap(memoryBean);
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long[][] latencies = new long[CLIENTS][];
+        int[] counts = new int[CLIENTS];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(SECONDS).toNanos();
+        int busyThreads;
+        long busyHeap;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long id = ThreadLocalRandom.current().nextLong(1, EMPLOYEES + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                                .timeout(Duration.ofSeconds(30)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies[client] = samples;
+                    counts[client] = count;
+                });
+            }
+            // sample once every connection is open and the server has settled into its steady state
+            Thread.sleep(Duration.ofSeconds(SECONDS / 2));
+            busyThreads = threadBean.getThreadCount();
+            busyHeap = retainedHeap(memoryBean);
+        }
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < CLIENTS; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(mode, total / (double) SECONDS, percentile(all, 0.5), percentile(all, 0.99),
+                percentile(all, 0.999), errors.get(), Math.max(0, busyThreads - idleThreads),
+                Math.max(0, busyHeap - idleHeap));
+    }
+
+    // heap still in use after a full collection, so garbage from the load does not count as per-connection state
+    private static long retainedHeap(MemoryMXBean memoryBean) {
+        System.gc();
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private record Result(String mode, double throughput, long p50, long p99, long p999, long errors,
+                          int threads, long heapBytes) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.projectx.springboottesting.integration;
+
+import com.projectx.springboottesting.SpringBootTestingApplication;
+import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the classic Tomcat thread pool with the {@code virtual} profile under high concurrency against MySQL.
+ * Each mode gets a fresh application; {@value #CLIENTS} closed-loop clients read random employees for
+ * {@value #SECONDS} seconds. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ThreadModeLoadBenchmarkIT extends AbstractContainerBaseTest {
+
+    private static final int CLIENTS = 1_000;
+
+    private static final int SECONDS = 20;
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Test
+    @DisplayName("Benchmark platform threads against virtual threads at high concurrency")
+    public void givenHighConcurrency_whenServedOnVirtualThreads_thenReportThroughputAndTailLatency() throws Exception {
+        Result platform = run("default");
+        Result virtual = run("virtual");
+
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %,12.0f %10.1f %10.1f %10.1f %8d%n", result.mode, result.throughput,
+                    result.p50 / 1e6, result.p99 / 1e6, result.p999 / 1e6, result.errors);
+        }
+        assertThat(virtual.errors).isZero();
+    }
+
+    private Result run(String profile) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=" + SQL_CONTAINER.getJdbcUrl(),
+                        "--spring.datasource.username=" + SQL_CONTAINER.getUsername(),
+                        "--spring.datasource.password=" + SQL_CONTAINER.getPassword(),
+                        // keep the cache out of the way so every request reaches JDBC
+                        "--employee.cache.maximum-size=0")) {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+            if (employeeService.getEmployeePage(0, 1).items().isEmpty()) {
+                seed(employeeService);
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(profile, "http://localhost:" + port + "/api/employees/");
+        }
+    }
+
+    private static void seed(EmployeeService employeeService) {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@gmail.com").build());
+        }
+        employeeService.saveEmployees(employees);
+    }
+
+    private static Result drive(String mode, String baseUrl) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long[][] latencies = new long[CLIENTS][];
+        int[] counts = new int[CLIENTS];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(SECONDS).toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long id = ThreadLocalRandom.current().nextLong(1, EMPLOYEES + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                                .timeout(Duration.ofSeconds(30)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies[client] = samples;
+                    counts[client] = count;
+                });
+            }
+        }
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < CLIENTS; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(mode, total / (double) SECONDS, percentile(all, 0.5), percentile(all, 0.99),
+                percentile(all, 0.999), errors.get());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private record Result(String mode, double throughput, long p50, long p99, long p999, long errors) {
+    }
+}
@@ -1,25 +1,51 @@
 package com.projectx.springboottesting.repository;
 
+import com.projectx.springboottesting.config.HibernateCacheConfig;
 import com.projectx.springboottesting.model.Employee;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(HibernateCacheConfig.class)
 public class EmployeeRepositoryTest {
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Employee employee;
 
+    @AfterEach
+    public void tearDown() {
+        // removes what a non-transactional test committed; rolled back with the rest in the others
+        employeeRepository.deleteAll();
+    }
+
     @BeforeEach
     public void setup() {
         this.employee = Employee.builder()
@@ -163,4 +189,109 @@ public class EmployeeRepositoryTest {
         //then - verify the output
         assertThat(employeeDB).isNotNull();
     }
+
+    // a transaction never reads the cache entries of rows it wrote itself, so this test commits as it goes
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Test for get employee by id from the second-level cache")
+    public void givenCachedEmployee_whenFindByIdInNewPersistenceContext_thenNoStatementIsExecuted() {
+        //given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.findById(employee.getId());
+        Statistics statistics = statistics();
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        //when - action or the behaviour that we are going to test
+        var employeeDB = employeeRepository.findById(employee.getId());
+
+        //then - verify the output
+        assertThat(employeeDB).isPresent();
+        assertThat(employeeDB.get().getEmail()).isEqualTo("JohnLuther@gmail.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Test for patch and delete evicting only their own rows from the second-level cache")
+    public void givenCachedEmployees_whenPatchAndDeleteOne_thenOthersStayCached() {
+        //given - precondition or setup
+        Employee other = employeeRepository.save(Employee.builder()
+                .firstName("Tom")
+                .lastName("Cruise")
+                .email("TomCruise@gmail.com").build());
+        employeeRepository.save(employee);
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findById(other.getId());
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+
+        //when - action or the behaviour that we are going to test
+        employeeRepository.patchEmployee(employee.getId(), "Johnny", null, null);
+        boolean patchedCached = cache.contains(Employee.class, employee.getId());
+        boolean otherCachedAfterPatch = cache.contains(Employee.class, other.getId());
+        var patched = employeeRepository.findById(employee.getId());
+        employeeRepository.deleteEmployeeById(other.getId());
+
+        //then - verify the output
+        assertThat(patchedCached).isFalse();
+        assertThat(otherCachedAfterPatch).isTrue();
+        assertThat(patched).map(Employee::getFirstName).contains("Johnny");
+        assertThat(cache.contains(Employee.class, employee.getId())).isTrue();
+        assertThat(cache.contains(Employee.class, other.getId())).isFalse();
+        assertThat(employeeRepository.findById(other.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test for get employee by email from the query cache, invalidated by a save")
+    public void givenCachedEmailQuery_whenEmployeeIsSaved_thenQueryRunsAgain() {
+        //given - precondition or setup
+        employeeRepository.findByEmail("TomCruise@gmail.com");
+        Statistics statistics = statistics();
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(employeeRepository.findByEmail("TomCruise@gmail.com")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+
+        //when - action or the behaviour that we are going to test
+        employeeRepository.save(Employee.builder()
+                .firstName("Tom")
+                .lastName("Cruise")
+                .email("TomCruise@gmail.com").build());
+        entityManager.flush();
+        var employeeDB = employeeRepository.findByEmail("TomCruise@gmail.com");
+
+        //then - verify the output
+        assertThat(employeeDB).isPresent();
+    }
+
+    @Test
+    @DisplayName("Test for the change counter behind the collection ETag, moved by bulk statements too")
+    public void givenEmployee_whenSavePatchAndDelete_thenChangeCounterMovesEachTime() {
+        //given - precondition or setup
+        List<Long> changes = new ArrayList<>();
+        changes.add(changes());
+
+        //when - action or the behaviour that we are going to test
+        employeeRepository.save(employee);
+        entityManager.flush();
+        changes.add(changes());
+        employeeRepository.patchEmployee(employee.getId(), "Johnny", null, null);
+        changes.add(changes());
+        employeeRepository.findByEmail("JohnLuther@gmail.com");
+        changes.add(changes());
+        employeeRepository.deleteEmployeeById(employee.getId());
+        changes.add(changes());
+
+        //then - verify the output
+        assertThat(changes).containsExactly(changes.get(0), changes.get(0) + 1, changes.get(0) + 2,
+                changes.get(0) + 2, changes.get(0) + 3);
+    }
+
+    private long changes() {
+        return jdbcTemplate.queryForObject("select sum(changes) from employee_change", Long.class);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
 }
@@ -0,0 +1,120 @@
+package com.projectx.springboottesting.repository;
+
+import com.projectx.springboottesting.dto.EmployeeCollectionVersion;
+import com.projectx.springboottesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///employees")
+@ActiveProfiles("reactive")
+@Import(ReactiveEmployeeRepository.class)
+public class ReactiveEmployeeRepositoryTest {
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        databaseClient.sql("drop table if exists employee").then()
+                .then(databaseClient.sql("drop table if exists employee_change").then())
+                .then(databaseClient.sql("create table employee (id bigint auto_increment primary key, " +
+                        "first_name varchar(255), last_name varchar(255), email varchar(255) unique, " +
+                        "version bigint not null)").then())
+                .then(databaseClient.sql("create table employee_change (slot int primary key, changes bigint not null) " +
+                        "as select x - 1, 0 from system_range(1, 16)").then())
+                .then(databaseClient.sql("create trigger employee_changed after insert, update, delete on employee " +
+                        "for each statement call '" + EmployeeChangeTrigger.class.getName() + "'").then())
+                .block();
+        this.employee = Employee.builder()
+                .firstName("John")
+                .lastName("Luther")
+                .email("JohnLuther@gmail.com").build();
+    }
+
+    @Test
+    @DisplayName("Test the save employee operation")
+    public void givenEmployee_whenSave_thenReturnSavedEmployee() {
+        //when - action or the behaviour that we are going to test
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        //then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployee.getId()).isGreaterThan(0);
+        assertThat(employeeRepository.findByEmail("JohnLuther@gmail.com").block())
+                .extracting(Employee::getFirstName, Employee::getVersion)
+                .containsExactly("John", 0L);
+    }
+
+    @Test
+    @DisplayName("Test for the name and email lookups")
+    public void givenEmployee_whenFindByFirstNameAndLastName_thenReturnEmployee() {
+        //given - precondition or setup
+        employeeRepository.save(employee).block();
+
+        //when - action or the behaviour that we are going to test
+        Employee derived = employeeRepository.findByFirstNameAndLastName("John", "Luther").block();
+        Employee byEmail = employeeRepository.findByEmail("JohnLuther@gmail.com").block();
+
+        //then - verify the output
+        assertThat(derived.getEmail()).isEqualTo("JohnLuther@gmail.com");
+        assertThat(byEmail.getLastName()).isEqualTo("Luther");
+    }
+
+    @Test
+    @DisplayName("Test the versioned update operation")
+    public void givenStaleVersion_whenUpdateEmployeeIfVersion_thenUpdateNothing() {
+        //given - precondition or setup
+        long id = employeeRepository.save(employee).block().getId();
+
+        //when - action or the behaviour that we are going to test
+        long updated = employeeRepository.updateEmployeeIfVersion(id, 0,
+                Employee.builder().firstName("Jack").lastName("Luther").email("JackLuther@gmail.com").build()).block();
+        long stale = employeeRepository.patchEmployeeIfVersion(id, 0, Employee.builder().firstName("Jim").build()).block();
+
+        //then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(employeeRepository.findVersionById(id).block()).isEqualTo(1L);
+        assertThat(employeeRepository.findById(id).block().getFirstName()).isEqualTo("Jack");
+        assertThat(employeeRepository.patchEmployee(id, Employee.builder().lastName("Reacher").build()).block()).isEqualTo(1);
+        assertThat(employeeRepository.findById(id).block())
+                .extracting(Employee::getFirstName, Employee::getLastName, Employee::getVersion)
+                .containsExactly("Jack", "Reacher", 2L);
+    }
+
+    @Test
+    @DisplayName("Test the page, collection version and bulk delete operations")
+    public void givenEmployees_whenFindPageAndDelete_thenReturnPageAndFingerprint() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder().firstName("Tom").lastName("Cruise").email("tomcruise@gmail.com").build();
+        List<Long> ids = Flux.just(employee, employee1).concatMap(employeeRepository::save).map(Employee::getId)
+                .collectList().block();
+
+        //when - action or the behaviour that we are going to test
+        //then - verify the output
+        StepVerifier.create(employeeRepository.findByIdGreaterThanOrderByIdAsc(ids.get(0), 10).map(Employee::getId))
+                .expectNext(ids.get(1))
+                .verifyComplete();
+        assertThat(employeeRepository.collectionVersion().block()).isEqualTo(new EmployeeCollectionVersion(2));
+        assertThat(employeeRepository.deleteEmployeesByIds(ids).block()).isEqualTo(2);
+        assertThat(employeeRepository.findAll().collectList().block()).isEmpty();
+        assertThat(employeeRepository.collectionVersion().block()).isEqualTo(new EmployeeCollectionVersion(3));
+    }
+}
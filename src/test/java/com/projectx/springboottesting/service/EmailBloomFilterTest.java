@@ -0,0 +1,72 @@
+package com.projectx.springboottesting.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailBloomFilterTest {
+
+    @Test
+    @DisplayName("Junit test for mightContain before the filter is loaded")
+    public void givenUnloadedFilter_whenMightContain_thenReturnTrue() {
+        //given - precondition or setup
+        EmailBloomFilter filter = new EmailBloomFilter(null, 1000, 0.01);
+
+        //when - action or the behaviour that we are going to test
+        boolean mightContain = filter.mightContain("tony@gmail.com");
+
+        //then - verify the output
+        assertThat(mightContain).isTrue();
+    }
+
+    @Test
+    @DisplayName("Junit test for mightContain on stored emails")
+    public void givenLoadedEmails_whenMightContain_thenNoFalseNegatives() {
+        //given - precondition or setup
+        EmailBloomFilter filter = new EmailBloomFilter(null, 10_000, 0.01);
+        filter.load(IntStream.range(0, 10_000).mapToObj(i -> "employee" + i + "@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        long missing = IntStream.range(0, 10_000)
+                .filter(i -> !filter.mightContain("Employee" + i + "@Gmail.com"))
+                .count();
+
+        //then - verify the output
+        assertThat(missing).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test for the false positive rate of mightContain")
+    public void givenLoadedEmails_whenMightContainUnseenEmails_thenFalsePositiveRateStaysNearTarget() {
+        //given - precondition or setup
+        EmailBloomFilter filter = new EmailBloomFilter(null, 10_000, 0.01);
+        filter.load(IntStream.range(0, 10_000).mapToObj(i -> "employee" + i + "@gmail.com"));
+
+        //when - action or the behaviour that we are going to test
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("new" + i + "@gmail.com"))
+                .count();
+
+        //then - verify the output
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    @DisplayName("Junit test for put after the filter is loaded")
+    public void givenLoadedFilter_whenPut_thenMightContainReturnsTrue() {
+        //given - precondition or setup
+        EmailBloomFilter filter = new EmailBloomFilter(null, 1000, 0.01);
+        filter.load(Stream.empty());
+
+        //when - action or the behaviour that we are going to test
+        filter.put("tony@gmail.com");
+
+        //then - verify the output
+        assertThat(filter.mightContain("tony@gmail.com")).isTrue();
+        assertThat(filter.mightContain("bill@gmail.com")).isFalse();
+    }
+}
@@ -0,0 +1,143 @@
+package com.projectx.springboottesting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeImportEvent;
+import com.projectx.springboottesting.exception.ResourceNotFoundException;
+import com.projectx.springboottesting.model.Employee;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeImporterTest {
+
+    private final EmployeeService employeeService = Mockito.mock(EmployeeService.class);
+
+    private final List<Employee> saved = new ArrayList<>();
+
+    private final List<EmployeeImportEvent> events = new ArrayList<>();
+
+    private EmployeeImporter importer(int chunkSize) {
+        return new EmployeeImporter(employeeService, new ObjectMapper(), chunkSize, 100);
+    }
+
+    private void givenEveryEmployeeIsCreated() {
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            List<EmployeeBatchResult.Item> items = new ArrayList<>();
+            for (int i = 0; i < employees.size(); i++) {
+                saved.add(employees.get(i).toBuilder().build());
+                items.add(new EmployeeBatchResult.Item(i, EmployeeBatchResult.Status.CREATED, (long) saved.size(),
+                        employees.get(i).getEmail(), null));
+            }
+            return new EmployeeBatchResult(items.size(), 0, items);
+        });
+    }
+
+    private EmployeeImportEvent run(EmployeeImporter importer, EmployeeImporter.Format format, String body) throws IOException {
+        return importer.importEmployees(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format,
+                StandardCharsets.UTF_8, events::add);
+    }
+
+    @Test
+    @DisplayName("Junit test for importEmployees from CSV with quoted fields")
+    public void givenCsv_whenImportEmployees_thenParseQuotedFieldsAndWriteInChunks() throws IOException {
+        //given - precondition or setup
+        givenEveryEmployeeIsCreated();
+        String csv = "email,last_name,first_name\r\n"
+                + "tony@gmail.com,Stark,Tony\r\n"
+                + "\"bruce@gmail.com\",\"Wayne, Jr.\",\"Bruce \"\"Bats\"\"\"\n"
+                + "\n"
+                + "clark@gmail.com,\"Kent\nSmallville\",Clark\n";
+
+        //when - action or the behaviour that we are going to test
+        EmployeeImportEvent completed = run(importer(2), EmployeeImporter.Format.CSV, csv);
+
+        //then - verify the output
+        assertThat(completed).isEqualTo(EmployeeImportEvent.completed(3, 3, 0));
+        assertThat(saved).extracting(Employee::getFirstName).containsExactly("Tony", "Bruce \"Bats\"", "Clark");
+        assertThat(saved).extracting(Employee::getLastName).containsExactly("Stark", "Wayne, Jr.", "Kent\nSmallville");
+        BDDMockito.then(employeeService).should(Mockito.times(2)).saveEmployees(ArgumentMatchers.anyList());
+        assertThat(events).containsExactly(
+                EmployeeImportEvent.progress(2, 2, 0),
+                EmployeeImportEvent.progress(3, 3, 0),
+                completed);
+    }
+
+    @Test
+    @DisplayName("Junit test for importEmployees reporting rejected lines")
+    public void givenInvalidAndDuplicateRows_whenImportEmployees_thenReportRejectedLines() throws IOException {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList())).willReturn(new EmployeeBatchResult(1, 1, List.of(
+                new EmployeeBatchResult.Item(0, EmployeeBatchResult.Status.CREATED, 1L, "tony@gmail.com", null),
+                new EmployeeBatchResult.Item(1, EmployeeBatchResult.Status.DUPLICATE, null, "tony@gmail.com",
+                        "Employee already exist with given email: tony@gmail.com"))));
+        String ndjson = """
+                {"firstName":"Tony","email":"tony@gmail.com"}
+                {"firstName":"Tony"}
+                {"firstName":
+                {"firstName":"Tony","email":"not-an-email"}
+                {"firstName":"%s","email":"long@gmail.com"}
+                {"firstName":"Anthony","email":"tony@gmail.com"}
+                """.formatted("x".repeat(200));
+
+        //when - action or the behaviour that we are going to test
+        EmployeeImportEvent completed = run(importer(10), EmployeeImporter.Format.NDJSON, ndjson);
+
+        //then - verify the output
+        assertThat(completed).isEqualTo(EmployeeImportEvent.completed(6, 1, 5));
+        assertThat(events).extracting(EmployeeImportEvent::type, EmployeeImportEvent::line).containsExactly(
+                Tuple.tuple(EmployeeImportEvent.Type.REJECTED, 2L),
+                Tuple.tuple(EmployeeImportEvent.Type.REJECTED, 3L),
+                Tuple.tuple(EmployeeImportEvent.Type.REJECTED, 4L),
+                Tuple.tuple(EmployeeImportEvent.Type.REJECTED, 5L),
+                Tuple.tuple(EmployeeImportEvent.Type.REJECTED, 6L),
+                Tuple.tuple(EmployeeImportEvent.Type.PROGRESS, null),
+                Tuple.tuple(EmployeeImportEvent.Type.COMPLETED, null));
+        assertThat(events.get(4).message()).startsWith("Employee already exist");
+    }
+
+    @Test
+    @DisplayName("Junit test for importEmployees when a chunk loses a race on an email")
+    public void givenConcurrentInsert_whenImportEmployees_thenRetryOneByOne() throws IOException {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willThrow(new ResourceNotFoundException("Employee already exist with one of the given emails"));
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer(invocation -> invocation.getArgument(0))
+                .willThrow(new ResourceNotFoundException("Employee already exist with given email: bruce@gmail.com"));
+        String csv = "firstName,lastName,email\nTony,Stark,tony@gmail.com\nBruce,Wayne,bruce@gmail.com\n";
+
+        //when - action or the behaviour that we are going to test
+        EmployeeImportEvent completed = run(importer(10), EmployeeImporter.Format.CSV, csv);
+
+        //then - verify the output
+        assertThat(completed).isEqualTo(EmployeeImportEvent.completed(2, 1, 1));
+        assertThat(events.get(0)).isEqualTo(EmployeeImportEvent.rejected(3,
+                "Employee already exist with given email: bruce@gmail.com"));
+    }
+
+    @Test
+    @DisplayName("Junit test for importEmployees from CSV without an email column")
+    public void givenCsvWithoutEmailHeader_whenImportEmployees_thenRejectHeaderAndStop() throws IOException {
+        //when - action or the behaviour that we are going to test
+        EmployeeImportEvent completed = run(importer(10), EmployeeImporter.Format.CSV,
+                "firstName,lastName\nTony,Stark\n");
+
+        //then - verify the output
+        assertThat(completed).isEqualTo(EmployeeImportEvent.completed(1, 0, 1));
+        assertThat(events.get(0).line()).isEqualTo(1L);
+        BDDMockito.then(employeeService).shouldHaveNoInteractions();
+    }
+}
@@ -0,0 +1,132 @@
+package com.projectx.springboottesting.service;
+
+import com.projectx.springboottesting.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class EmployeeSearchIndexTest {
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+
+    private static EmployeeSearchIndex index() {
+        EmployeeSearchIndex index = new EmployeeSearchIndex(null);
+        index.load(Stream.of(
+                employee(1, "John", "Smith", "jsmith@gmail.com"),
+                employee(2, "Johnny", "Walker", "walker@gmail.com"),
+                employee(3, "Tony", "Stark", "ironman@gmail.com"),
+                employee(4, "Joan", "Johnson", "joan@gmail.com")));
+        return index;
+    }
+
+    @Test
+    @DisplayName("Junit test for search ranking exact, then closest prefix matches")
+    public void givenPrefix_whenSearch_thenRankExactTokenFirst() {
+        //given - precondition or setup
+        EmployeeSearchIndex index = index();
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> found = index.search("John", 10);
+
+        //then - verify the output
+        assertThat(found).extracting(Employee::getId).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    @DisplayName("Junit test for search with a misspelled name")
+    public void givenTypo_whenSearch_thenReturnFuzzyMatch() {
+        //given - precondition or setup
+        EmployeeSearchIndex index = index();
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> found = index.search("stork", 10);
+
+        //then - verify the output
+        assertThat(found).extracting(Employee::getId).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Junit test for search with several words and an email prefix")
+    public void givenSeveralWords_whenSearch_thenEveryWordMustMatch() {
+        //given - precondition or setup
+        EmployeeSearchIndex index = index();
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> byName = index.search("john sm", 10);
+        List<Employee> byEmail = index.search("ironm", 10);
+
+        //then - verify the output
+        assertThat(byName).extracting(Employee::getId).containsExactly(1L);
+        assertThat(byEmail).extracting(Employee::getId).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Junit test for search after put, patch and remove")
+    public void givenWrites_whenSearch_thenIndexIsCurrent() {
+        //given - precondition or setup
+        EmployeeSearchIndex index = index();
+
+        //when - action or the behaviour that we are going to test
+        index.put(employee(5, "Bruce", "Wayne", "bruce@gmail.com"));
+        boolean patched = index.patch(3L, 1L, Employee.builder().lastName("Banner").build());
+        index.remove(1L);
+
+        //then - verify the output
+        assertThat(index.search("bru", 10)).extracting(Employee::getId).containsExactly(5L);
+        assertThat(index.search("banner", 10)).extracting(Employee::getId).containsExactly(3L);
+        assertThat(index.search("stark", 10)).isEmpty();
+        assertThat(index.search("smith", 10)).isEmpty();
+        assertThat(patched).isTrue();
+    }
+
+    @Test
+    @DisplayName("Junit test for a row deleted while the index loads")
+    public void givenRemovedDuringLoad_whenRowStreamed_thenNotIndexed() {
+        //given - precondition or setup
+        EmployeeSearchIndex index = new EmployeeSearchIndex(null);
+
+        //when - action or the behaviour that we are going to test
+        // the delete commits after the load's snapshot was taken, while its first row is being indexed
+        index.load(Stream.of(employee(1, "John", "Smith", "jsmith@gmail.com"),
+                        employee(2, "Johnny", "Walker", "walker@gmail.com"))
+                .peek(streamed -> {
+                    if (streamed.getId() == 1L) {
+                        index.remove(2L);
+                    }
+                }));
+
+        //then - verify the output
+        assertThat(index.search("john", 10)).extracting(Employee::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for writes that arrive out of order")
+    public void givenOlderVersionArrivesLast_whenPutAndPatch_thenNewestKept() {
+        //given - precondition or setup
+        EmployeeSearchIndex index = index();
+        Employee tony = employee(3, "Tony", "Stark", "ironman@gmail.com");
+
+        //when - action or the behaviour that we are going to test
+        index.put(tony.toBuilder().lastName("Banner").version(2L).build());
+        index.put(tony.toBuilder().lastName("Rogers").version(1L).build());
+        boolean stalePatch = index.patch(3L, 2L, Employee.builder().firstName("Anthony").build());
+        boolean gapPatch = index.patch(3L, 4L, Employee.builder().firstName("Bruce").build());
+        index.load(Stream.of(tony));
+
+        //then - verify the output
+        assertThat(index.search("banner", 10)).extracting(Employee::getId, Employee::getVersion)
+                .containsExactly(tuple(3L, 2L));
+        assertThat(index.search("rogers", 10)).isEmpty();
+        assertThat(index.search("anthony", 10)).isEmpty();
+        assertThat(index.search("bruce", 10)).isEmpty();
+        assertThat(stalePatch).isTrue();
+        assertThat(gapPatch).isFalse();
+    }
+}
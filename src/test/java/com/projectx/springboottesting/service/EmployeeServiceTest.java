@@ -1,25 +1,41 @@
 package com.projectx.springboottesting.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeePage;
+import com.projectx.springboottesting.exception.PreconditionFailedException;
 import com.projectx.springboottesting.exception.ResourceNotFoundException;
 import com.projectx.springboottesting.model.Employee;
+import com.projectx.springboottesting.repository.EmployeeJdbcRepository;
 import com.projectx.springboottesting.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.*;
 
 
@@ -29,6 +45,18 @@ public class EmployeeServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeJdbcRepository employeeJdbcRepository;
+
+    @Spy
+    private Cache<Long, Employee> employeeCache = Caffeine.newBuilder().maximumSize(100).build();
+
+    @Spy
+    private EmailBloomFilter emailFilter = new EmailBloomFilter(null, 1000, 0.01);
+
+    @Spy
+    private EmployeeSearchIndex searchIndex = new EmployeeSearchIndex(null);
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -76,6 +104,70 @@ public class EmployeeServiceTest {
         verify(employeeRepository, never()).save(any(Employee.class));
     }
 
+    @Test
+    @DisplayName("Junit test for saveEmployee method with an email the filter has never seen")
+    public void givenUnseenEmail_whenSaveEmployee_thenSkipFindByEmail() {
+        //given - precondition or setup
+        emailFilter.load(Stream.of("someone@gmail.com"));
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        //when - action or the behaviour that we are going to test
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        //then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(any());
+        assertThat(emailFilter.mightContain(employee.getEmail())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployee method losing a race on the unique email index")
+    public void givenConcurrentInsertOfSameEmail_whenSaveEmployee_thenThrowsException() {
+        //given - precondition or setup
+        emailFilter.load(Stream.empty());
+        given(employeeRepository.save(employee)).willThrow(new DataIntegrityViolationException("uk_employee_email"));
+
+        //when - action or the behaviour that we are going to test
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.saveEmployee(employee));
+
+        //then
+        verify(employeeRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Junit test for saveEmployees method")
+    public void givenEmployeesWithDuplicatesAndInvalid_whenSaveEmployees_thenInsertOnlyNewEmployees() {
+        //given - precondition or setup
+        Employee taken = Employee.builder().firstName("Tom").lastName("Hanks").email("tomcruise@gmail.com").build();
+        Employee invalid = Employee.builder().firstName("No").lastName("Email").build();
+        Employee fresh = Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        Employee repeated = Employee.builder().firstName("Tony").lastName("Stank").email("TONY@gmail.com").build();
+        List<Employee> employees = List.of(taken, invalid, fresh, repeated);
+
+        given(employeeRepository.findExistingEmails(any())).willReturn(Set.of(employee.getEmail()));
+        willAnswer(invocation -> {
+            List<Employee> inserted = invocation.getArgument(0);
+            inserted.forEach(e -> e.setId(10L));
+            return null;
+        }).given(employeeJdbcRepository).insertAll(any());
+
+        //when - action or the behaviour that we are going to test
+        EmployeeBatchResult result = employeeService.saveEmployees(employees);
+
+        //then - verify the output
+        verify(employeeRepository, times(1)).findExistingEmails(any());
+        verify(employeeJdbcRepository, times(1)).insertAll(List.of(fresh));
+        verify(employeeRepository, never()).save(any(Employee.class));
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.items()).extracting(EmployeeBatchResult.Item::status).containsExactly(
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.INVALID,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE);
+        assertThat(result.items().get(2).id()).isEqualTo(10L);
+    }
+
     @Test
     @DisplayName("Junit test for getAllEmployee method (negative scenario)")
     public void givenEmptyEmployeeList_whenGetAllEmployees_thenReturnEmptyEmployeeList() {
@@ -89,11 +181,57 @@ public class EmployeeServiceTest {
          assertThat(employeeList).isEmpty();
     }
 
+    @Test
+    @DisplayName("Junit test for getEmployeePage method with a following page")
+    public void givenMoreRowsThanLimit_whenGetEmployeePage_thenReturnPageWithNextCursor() {
+        //given - precondition or setup
+        Employee employee1 = Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build();
+        Employee employee2 = Employee.builder().id(3L).firstName("Bill").lastName("Gates").email("bill@gmail.com").build();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .willReturn(List.of(employee, employee1, employee2));
+
+        //when - action or the behaviour that we are going to test
+        EmployeePage page = employeeService.getEmployeePage(0L, 2);
+
+        //then - verify the output
+        assertThat(page.items()).containsExactly(employee, employee1);
+        assertThat(EmployeePage.decodeCursor(page.next())).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeePage method on the last page")
+    public void givenFewerRowsThanLimit_whenGetEmployeePage_thenReturnPageWithoutNextCursor() {
+        //given - precondition or setup
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .willReturn(List.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        EmployeePage page = employeeService.getEmployeePage(0L, 2);
+
+        //then - verify the output
+        assertThat(page.items()).containsExactly(employee);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("Junit test for streamAllEmployees method")
+    public void givenEmployees_whenStreamAllEmployees_thenConsumeEachEmployee() {
+        //given - precondition or setup
+        given(employeeJdbcRepository.streamAll()).willReturn(Stream.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> consumed = new ArrayList<>();
+        employeeService.streamAllEmployees(consumed::add);
+
+        //then - verify the output
+        assertThat(consumed).containsExactly(employee);
+    }
+
     @Test
     @DisplayName("Junit test for getEmployeeById method")
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee() {
         //given - precondition or setup
-        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.findFreshById(1L)).willReturn(Optional.of(employee));
 
         //when - action or the behaviour that we are going to test
         Employee savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
@@ -102,6 +240,108 @@ public class EmployeeServiceTest {
         assertThat(savedEmployee).isNotNull();
     }
 
+    @Test
+    @DisplayName("Junit test for getEmployeeById method served from the cache")
+    public void givenCachedEmployee_whenGetEmployeeByIdTwice_thenQueryRepositoryOnce() {
+        //given - precondition or setup
+        given(employeeRepository.findFreshById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going to test
+        Employee first = employeeService.getEmployeeById(1L).get();
+        Employee second = employeeService.getEmployeeById(1L).get();
+
+        //then - verify the output
+        verify(employeeRepository, times(1)).findFreshById(1L);
+        assertThat(second.getEmail()).isEqualTo(employee.getEmail());
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeVersion method served from the cache")
+    public void givenCachedEmployee_whenGetEmployeeVersion_thenSkipFindVersionById() {
+        //given - precondition or setup
+        employee.setVersion(3);
+        given(employeeRepository.findFreshById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.findVersionById(2L)).willReturn(Optional.of(5L));
+        employeeService.getEmployeeById(1L);
+
+        //when - action or the behaviour that we are going to test
+        Optional<Long> cachedVersion = employeeService.getEmployeeVersion(1L);
+        Optional<Long> uncachedVersion = employeeService.getEmployeeVersion(2L);
+
+        //then - verify the output
+        assertThat(cachedVersion).contains(3L);
+        assertThat(uncachedVersion).contains(5L);
+        verify(employeeRepository, never()).findVersionById(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById method after updateEmployee")
+    public void givenCachedEmployee_whenUpdateEmployee_thenNextGetReadsUpdatedRow() {
+        //given - precondition or setup
+        Employee updated = employee.toBuilder().email("Tom@gmail.com").build();
+        given(employeeRepository.findFreshById(1L)).willReturn(Optional.of(employee), Optional.of(updated));
+        given(employeeRepository.save(updated)).willReturn(updated);
+        employeeService.getEmployeeById(1L);
+
+        //when - action or the behaviour that we are going to test
+        employeeService.updateEmployee(updated);
+        Employee employeeAfterUpdate = employeeService.getEmployeeById(1L).get();
+
+        //then - verify the output
+        assertThat(employeeAfterUpdate.getEmail()).isEqualTo("Tom@gmail.com");
+        verify(employeeRepository, times(2)).findFreshById(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for updateEmployee method with a stale version (negative scenario)")
+    public void givenStaleCachedEmployee_whenUpdateEmployee_thenEvictAndThrow() {
+        //given - precondition or setup
+        Employee stale = employee.toBuilder().version(1L).build();
+        given(employeeRepository.findFreshById(1L)).willReturn(Optional.of(stale), Optional.of(employee.toBuilder().version(2L).build()));
+        given(employeeRepository.save(any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+        Employee loaded = employeeService.getEmployeeById(1L).get();
+
+        //when - action or the behaviour that we are going to test
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> employeeService.updateEmployee(loaded));
+
+        //then - verify the output
+        assertThat(employeeService.getEmployeeById(1L).get().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Junit test for searchEmployees method after saveEmployee and deleteEmployee")
+    public void givenSavedEmployee_whenSearchEmployees_thenIndexFollowsWrites() {
+        //given - precondition or setup
+        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        employeeService.saveEmployee(employee);
+
+        //when - action or the behaviour that we are going to test
+        List<Employee> found = employeeService.searchEmployees(employee.getFirstName().substring(0, 3), 10);
+        employeeService.deleteEmployee(1L);
+        List<Employee> foundAfterDelete = employeeService.searchEmployees(employee.getFirstName().substring(0, 3), 10);
+
+        //then - verify the output
+        assertThat(found).extracting(Employee::getId).containsExactly(1L);
+        assertThat(foundAfterDelete).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for getEmployeeById method after deleteEmployee")
+    public void givenCachedEmployee_whenDeleteEmployee_thenNextGetReturnsEmpty() {
+        //given - precondition or setup
+        given(employeeRepository.findFreshById(1L)).willReturn(Optional.of(employee), Optional.empty());
+        employeeService.getEmployeeById(1L);
+
+        //when - action or the behaviour that we are going to test
+        employeeService.deleteEmployee(1L);
+
+        //then - verify the output
+        assertThat(employeeService.getEmployeeById(1L)).isEmpty();
+    }
+
     @Test
     @DisplayName("Junit test for updateEmployee method")
     public void givenEmployee_whenUpdateEmployee_thenReturnUpdatedEmployee() {
@@ -116,17 +356,99 @@ public class EmployeeServiceTest {
         assertThat(updatedEmployee.getEmail()).isEqualTo("Tom@gmail.com");
     }
 
+    @Test
+    @DisplayName("Junit test for patchEmployee method")
+    public void givenEmployeeIdAndChanges_whenPatchEmployee_thenIssueSingleUpdate() {
+        //given - precondition or setup
+        given(employeeRepository.patchEmployee(1L, null, null, "Tom@gmail.com")).willReturn(1);
+        given(employeeRepository.findFreshById(1L))
+                .willReturn(Optional.of(employee.toBuilder().email("Tom@gmail.com").version(1L).build()));
+        Employee changes = Employee.builder().email("Tom@gmail.com").build();
+
+        //when - action or the behaviour that we are going to test
+        boolean patched = employeeService.patchEmployee(1L, changes);
+
+        //then - verify the output
+        assertThat(patched).isTrue();
+        // the row is only read back after the UPDATE, to index it at the version the statement produced
+        InOrder inOrder = inOrder(employeeRepository, employeeCache);
+        inOrder.verify(employeeRepository).patchEmployee(1L, null, null, "Tom@gmail.com");
+        inOrder.verify(employeeCache).invalidate(1L);
+        inOrder.verify(employeeRepository).findFreshById(1L);
+        verify(employeeRepository, never()).save(any(Employee.class));
+        assertThat(employeeService.searchEmployees("tom@", 10)).extracting(Employee::getVersion).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee method (negative scenario)")
+    public void givenMissingEmployeeId_whenPatchEmployee_thenReturnFalse() {
+        //given - precondition or setup
+        given(employeeRepository.patchEmployee(1L, "Tom", null, null)).willReturn(0);
+
+        //when - action or the behaviour that we are going to test
+        boolean patched = employeeService.patchEmployee(1L, Employee.builder().firstName("Tom").build());
+
+        //then - verify the output
+        assertThat(patched).isFalse();
+    }
+
+    @Test
+    @DisplayName("Junit test for patchEmployee method with an expected version (negative scenario)")
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsPreconditionFailedException() {
+        //given - precondition or setup
+        given(employeeRepository.patchEmployeeIfVersion(1L, 3L, "Tom", null, null)).willReturn(0);
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(4L));
+
+        //when - action or the behaviour that we are going to test
+        assertThrows(PreconditionFailedException.class,
+                () -> employeeService.patchEmployee(1L, 3L, Employee.builder().firstName("Tom").build()));
+
+        //then - verify the output
+        verify(employeeCache, never()).invalidate(anyLong());
+    }
+
     @Test
     @DisplayName("Junit test for deleteByEmployeeId")
     public void givenEmployeeId_whenDeleteEmployee_thenNothing() {
         //given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
+
+        //when - action or the behaviour that we are going to test
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        //then - verify the output
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployeeById(employeeId);
+        verify(employeeRepository, never()).findFreshById(employeeId);
+    }
+
+    @Test
+    @DisplayName("Junit test for deleteByEmployeeId (negative scenario)")
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+        //given - precondition or setup
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(0);
+
+        //when - action or the behaviour that we are going to test
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        //then - verify the output
+        assertThat(deleted).isFalse();
+    }
+
+    @Test
+    @DisplayName("Junit test for deleteEmployees in chunks")
+    public void givenManyEmployeeIds_whenDeleteEmployees_thenDeleteInChunks() {
+        //given - precondition or setup
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        given(employeeRepository.deleteEmployeesByIds(any())).willAnswer(invocation ->
+                invocation.getArgument(0, List.class).size());
 
         //when - action or the behaviour that we are going to test
-        employeeService.deleteEmployee(employeeId);
+        int deleted = employeeService.deleteEmployees(ids);
 
         //then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(deleted).isEqualTo(2500);
+        verify(employeeRepository, times(3)).deleteEmployeesByIds(any());
     }
 }
@@ -0,0 +1,163 @@
+package com.projectx.springboottesting.service;
+
+import com.projectx.springboottesting.dto.EmployeeBatchResult;
+import com.projectx.springboottesting.dto.EmployeeIngestStatus;
+import com.projectx.springboottesting.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeWriteBehindQueueTest {
+
+    private final EmployeeService employeeService = Mockito.mock(EmployeeService.class);
+
+    private EmployeeWriteBehindQueue queue(int capacity) {
+        return new EmployeeWriteBehindQueue(employeeService, true, capacity, 500, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    private static Employee employee(int i) {
+        return Employee.builder().firstName("Tony").lastName("Stark").email("tony" + i + "@gmail.com").build();
+    }
+
+    @Test
+    @DisplayName("Junit test for offer when the queue is full")
+    public void givenFullQueue_whenOffer_thenReturnEmpty() throws Exception {
+        //given - precondition or setup
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return new EmployeeBatchResult(0, 0, List.of());
+        });
+        EmployeeWriteBehindQueue queue = queue(1);
+        queue.start();
+        queue.offer(employee(0));
+        writing.await();
+        queue.offer(employee(1));
+
+        //when - action or the behaviour that we are going to test
+        Optional<EmployeeIngestStatus> rejected = queue.offer(employee(2));
+
+        //then - verify the output
+        assertThat(rejected).isEmpty();
+        release.countDown();
+        queue.stop();
+        assertThat(queue.offer(employee(3))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for stop flushing queued employees")
+    public void givenQueuedEmployees_whenStop_thenFlushAndRecordStatus() {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            List<EmployeeBatchResult.Item> items = new ArrayList<>();
+            for (int i = 0; i < employees.size(); i++) {
+                items.add(new EmployeeBatchResult.Item(i, EmployeeBatchResult.Status.CREATED, 100L + i,
+                        employees.get(i).getEmail(), null));
+            }
+            return new EmployeeBatchResult(items.size(), 0, items);
+        });
+        EmployeeWriteBehindQueue queue = queue(100);
+        queue.start();
+        List<String> trackingIds = IntStream.range(0, 10)
+                .mapToObj(i -> queue.offer(employee(i)).orElseThrow().trackingId())
+                .toList();
+
+        //when - action or the behaviour that we are going to test
+        queue.stop();
+
+        //then - verify the output
+        assertThat(trackingIds).allSatisfy(id ->
+                assertThat(queue.getStatus(id)).get()
+                        .extracting(EmployeeIngestStatus::state)
+                        .isEqualTo(EmployeeIngestStatus.State.CREATED));
+    }
+
+    @Test
+    @DisplayName("Junit test for a failed batch falling back to single inserts")
+    public void givenFailingBatch_whenDrain_thenRejectOnlyOffendingEmployee() {
+        //given - precondition or setup
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willThrow(new RuntimeException("batch failed"));
+        BDDMockito.given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("tony1@gmail.com")) {
+                throw new RuntimeException("Employee already exist with given email: tony1@gmail.com");
+            }
+            return employee.toBuilder().id(1L).build();
+        });
+        EmployeeWriteBehindQueue queue = queue(100);
+        queue.start();
+        String ok = queue.offer(employee(0)).orElseThrow().trackingId();
+        String duplicate = queue.offer(employee(1)).orElseThrow().trackingId();
+
+        //when - action or the behaviour that we are going to test
+        queue.stop();
+
+        //then - verify the output
+        assertThat(queue.getStatus(ok)).get().extracting(EmployeeIngestStatus::state)
+                .isEqualTo(EmployeeIngestStatus.State.CREATED);
+        assertThat(queue.getStatus(duplicate)).get().extracting(EmployeeIngestStatus::state)
+                .isEqualTo(EmployeeIngestStatus.State.REJECTED);
+    }
+
+    @Test
+    @DisplayName("Junit test for queued statuses surviving a full status cache")
+    public void givenManyFinishedStatuses_whenOffer_thenQueuedStatusKept() throws Exception {
+        //given - precondition or setup
+        AtomicBoolean block = new AtomicBoolean();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BDDMockito.given(employeeService.saveEmployees(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            if (block.get()) {
+                writing.countDown();
+                release.await();
+            }
+            List<EmployeeBatchResult.Item> items = new ArrayList<>();
+            for (int i = 0; i < employees.size(); i++) {
+                items.add(new EmployeeBatchResult.Item(i, EmployeeBatchResult.Status.CREATED, 100L + i,
+                        employees.get(i).getEmail(), null));
+            }
+            return new EmployeeBatchResult(items.size(), 0, items);
+        });
+        // capacity 1 keeps at most 10 finished statuses
+        EmployeeWriteBehindQueue queue = queue(1);
+        queue.start();
+        for (int i = 0; i < 50; i++) {
+            String trackingId = queue.offer(employee(i)).orElseThrow().trackingId();
+            while (queue.getStatus(trackingId).map(EmployeeIngestStatus::state)
+                    .filter(EmployeeIngestStatus.State.QUEUED::equals).isPresent()) {
+                Thread.sleep(1);
+            }
+        }
+        block.set(true);
+
+        //when - action or the behaviour that we are going to test
+        String writingId = queue.offer(employee(50)).orElseThrow().trackingId();
+        writing.await();
+        String waitingId = queue.offer(employee(51)).orElseThrow().trackingId();
+
+        //then - verify the output
+        assertThat(List.of(writingId, waitingId)).allSatisfy(id ->
+                assertThat(queue.getStatus(id)).get()
+                        .extracting(EmployeeIngestStatus::state)
+                        .isEqualTo(EmployeeIngestStatus.State.QUEUED));
+        release.countDown();
+        queue.stop();
+    }
+}
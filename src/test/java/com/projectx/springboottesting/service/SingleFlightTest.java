@@ -0,0 +1,184 @@
+package com.projectx.springboottesting.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // waits until the load has started and gives the other callers time to queue behind it
+    private void awaitWaiters() throws InterruptedException {
+        while (singleFlight.inFlight() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+    }
+
+    @Test
+    @DisplayName("Junit test for concurrent lookups of one key sharing a load")
+    public void givenConcurrentLookups_whenLoad_thenLoadedOnceAndShared() throws Exception {
+        //given - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> callers = new ArrayList<>();
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 16; i++) {
+            callers.add(executor.submit(() -> singleFlight.load(1L, key -> {
+                loads.incrementAndGet();
+                awaitUninterruptibly(release);
+                return "employee" + key;
+            })));
+        }
+        awaitWaiters();
+        release.countDown();
+
+        //then - verify the output
+        for (Future<String> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isEqualTo("employee1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.load(1L, key -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    @DisplayName("Junit test for a failed load reaching every waiting caller")
+    public void givenFailingLoad_whenLoad_thenEveryCallerGetsTheException() throws Exception {
+        //given - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+        List<Future<String>> callers = new ArrayList<>();
+
+        //when - action or the behaviour that we are going to test
+        for (int i = 0; i < 4; i++) {
+            callers.add(executor.submit(() -> singleFlight.load(1L, key -> {
+                loads.incrementAndGet();
+                awaitUninterruptibly(release);
+                throw failure;
+            })));
+        }
+        awaitWaiters();
+        release.countDown();
+
+        //then - verify the output
+        for (Future<String> caller : callers) {
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test for waiters taking over when the loading thread is interrupted")
+    public void givenLoaderInterrupted_whenLoad_thenWaiterLoadsInstead() throws Exception {
+        //given - precondition or setup
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = Thread.ofVirtual().start(() -> {
+            try {
+                singleFlight.load(1L, key -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        // as a JDBC driver would: fail, and keep the flag
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("interrupted", e);
+                    }
+                    return "leader";
+                });
+            } catch (IllegalStateException expected) {
+                // the interrupted caller sees its own failure
+            }
+        });
+        loading.await();
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(
+                () -> singleFlight.load(1L, key -> "waiter"), executor);
+        Thread.sleep(50);
+
+        //when - action or the behaviour that we are going to test
+        leader.interrupt();
+        leader.join();
+
+        //then - verify the output
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("waiter");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Junit test for an interrupted waiter giving up without disturbing the load")
+    public void givenWaiterInterrupted_whenLoad_thenWaiterCancelledAndLoadCompletes() throws Exception {
+        //given - precondition or setup
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.load(1L, key -> {
+            loading.countDown();
+            awaitUninterruptibly(release);
+            return "leader";
+        }), executor);
+        loading.await();
+        CompletableFuture<Throwable> waiterFailure = new CompletableFuture<>();
+        AtomicBoolean interruptFlagKept = new AtomicBoolean();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                singleFlight.load(1L, key -> "waiter");
+            } catch (CancellationException e) {
+                interruptFlagKept.set(Thread.currentThread().isInterrupted());
+                waiterFailure.complete(e);
+            }
+        });
+        Thread.sleep(50);
+
+        //when - action or the behaviour that we are going to test
+        waiter.interrupt();
+        waiter.join();
+        release.countDown();
+
+        //then - verify the output
+        assertThat(waiterFailure.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThat(interruptFlagKept).isTrue();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}